@@ -1,8 +1,8 @@
 package com.project.gui;
 
 import com.project.model.Budget;
-import com.project.model.Transcation;
 import com.project.service.BudgetService;
+import com.project.service.PeriodSpending;
 import com.project.service.TranscationService;
 import com.project.service.TransactionObserver;
 import com.project.util.AIConsultant;
@@ -14,8 +14,10 @@ import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
-import java.util.*;
-import java.util.List;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * AI Panel for financial advice and analysis
@@ -167,14 +169,13 @@ public class AIPanel extends JPanel implements TransactionObserver {
         prompt.append("I want financial advice based on my budget and spending. Here is my data:\n\n");
 
         // Add total budget
-        double totalBudgetAmount = 0;
-        for (Budget budget : budgetService.getAllBudgets()) {
-            if (budget.getCategory().equals("Total Budget")) {
-                totalBudgetAmount = budget.getAmount();
-                break;
-            }
-        }
-        double totalSpent = getCurrentMonthTotalExpense();
+        Budget totalBudget = budgetService.getTotalBudget();
+        double totalBudgetAmount = totalBudget != null ? totalBudget.getAmount() : 0;
+        // Current month snapshot shared with the budget panel, rebuilt only after transaction changes
+        PeriodSpending monthSpending = budgetService.getSpendingAggregation().getCurrentMonth();
+        double totalSpent = totalBudget != null
+                ? budgetService.calculateBudgetSpending(totalBudget)
+                : monthSpending.getTotalExpense();
 
         prompt.append("Total monthly budget: ¥").append(String.format("%.2f", totalBudgetAmount))
                 .append("\nTotal spent this month: ¥").append(String.format("%.2f", totalSpent))
@@ -182,20 +183,28 @@ public class AIPanel extends JPanel implements TransactionObserver {
                 .append("\n\nCategory breakdown:\n");
 
         // Add category budgets and spending
-        Map<String, Double> categoryExpenses = getCurrentMonthCategoryExpenses();
         DecimalFormat df = new DecimalFormat("#,##0.00");
 
-        for (Budget budget : budgetService.getAllBudgets()) {
-            if (!budget.getCategory().equals("Total Budget")) {
-                String category = budget.getCategory();
-                double budgetAmount = budget.getAmount();
-                double spentAmount = categoryExpenses.getOrDefault(category, 0.0);
-                double percentUsed = (budgetAmount > 0) ? (spentAmount / budgetAmount) * 100 : 0;
-
-                prompt.append("- ").append(category)
-                        .append(": Budget ¥").append(df.format(budgetAmount))
-                        .append(", Spent ¥").append(df.format(spentAmount))
-                        .append(" (").append(String.format("%.1f", percentUsed)).append("%)")
+        Set<String> budgetedCategories = new HashSet<>();
+        for (Budget budget : budgetService.getActiveCategoryBudgets(new Date())) {
+            String category = budget.getCategory();
+            budgetedCategories.add(category);
+            double budgetAmount = budget.getAmount();
+            double spentAmount = budgetService.calculateBudgetSpending(budget);
+            double percentUsed = budgetService.calculateBudgetUsagePercentage(budget);
+
+            prompt.append("- ").append(category)
+                    .append(": Budget ¥").append(df.format(budgetAmount))
+                    .append(", Spent ¥").append(df.format(spentAmount))
+                    .append(" (").append(String.format("%.1f", percentUsed)).append("%)")
+                    .append("\n");
+        }
+
+        // Add spending in categories without a budget
+        for (Map.Entry<String, Double> entry : monthSpending.getCategoryExpenses().entrySet()) {
+            if (!budgetedCategories.contains(entry.getKey())) {
+                prompt.append("- ").append(entry.getKey())
+                        .append(": No budget, Spent ¥").append(df.format(entry.getValue()))
                         .append("\n");
             }
         }
@@ -280,76 +289,4 @@ public class AIPanel extends JPanel implements TransactionObserver {
             }
         }).start();
     }
-
-    /**
-     * Get current month transactions
-     */
-    private List<Transcation> getCurrentMonthTransactions() {
-        List<Transcation> allTransactions = transactionService.getAllTransactions();
-        List<Transcation> currentMonthTransactions = new ArrayList<>();
-
-        if (allTransactions.isEmpty()) {
-            return currentMonthTransactions;
-        }
-
-        // Get current month's year and month
-        Calendar cal = Calendar.getInstance();
-        int currentYear = cal.get(Calendar.YEAR);
-        int currentMonth = cal.get(Calendar.MONTH);
-
-        // Filter current month transactions
-        for (Transcation transaction : allTransactions) {
-            if (transaction == null || transaction.getDate() == null) {
-                continue;
-            }
-
-            // Get transaction date's year and month
-            Calendar transCal = Calendar.getInstance();
-            transCal.setTime(transaction.getDate());
-            int transYear = transCal.get(Calendar.YEAR);
-            int transMonth = transCal.get(Calendar.MONTH);
-
-            // Only match year and month
-            if (transYear == currentYear && transMonth == currentMonth) {
-                currentMonthTransactions.add(transaction);
-            }
-        }
-
-        return currentMonthTransactions;
-    }
-
-    /**
-     * Calculate current month total expense (excluding income)
-     */
-    private double getCurrentMonthTotalExpense() {
-        List<Transcation> currentMonthTransactions = getCurrentMonthTransactions();
-        double totalExpense = 0;
-
-        for (Transcation transaction : currentMonthTransactions) {
-            if (!transaction.isIncome()) { // Only count expenses
-                totalExpense += transaction.getAmount();
-            }
-        }
-
-        return totalExpense;
-    }
-
-    /**
-     * Calculate current month category expenses (excluding income)
-     */
-    private Map<String, Double> getCurrentMonthCategoryExpenses() {
-        List<Transcation> currentMonthTransactions = getCurrentMonthTransactions();
-        Map<String, Double> categoryExpenses = new HashMap<>();
-
-        for (Transcation transaction : currentMonthTransactions) {
-            if (!transaction.isIncome()) { // Only count expenses, exclude income
-                String category = transaction.getCategory();
-                double amount = transaction.getAmount();
-                Double currentTotal = categoryExpenses.getOrDefault(category, 0.0);
-                categoryExpenses.put(category, currentTotal + amount);
-            }
-        }
-
-        return categoryExpenses;
-    }
-}
\ No newline at end of file
+}
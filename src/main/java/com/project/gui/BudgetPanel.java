@@ -1,11 +1,13 @@
 package com.project.gui;
 
 import com.project.model.Budget;
-import com.project.model.Transcation;
+import com.project.service.BudgetAlert;
 import com.project.service.BudgetObserver;
 import com.project.service.BudgetService;
+import com.project.service.SpendingForecast;
 import com.project.service.TransactionObserver;
 import com.project.service.TranscationService;
+import com.project.util.DateKeys;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -17,14 +19,17 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.List;
 
 /**
  * Budget management panel
- * Shows budget settings and usage, only counts current month expenses
+ * Shows budget settings and usage; each budget counts the expenses of its own current period
+ * (one-off date range, or the current week/month/year of a recurring budget), with a forecast
+ * of the period's spending
  */
-public class BudgetPanel extends JPanel implements BudgetObserver, TransactionObserver {
+public class BudgetPanel extends JPanel implements BudgetObserver, TransactionObserver, CardPanel {
     private BudgetService budgetService;
     private TranscationService transactionService;
 
@@ -37,14 +42,16 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
     private JProgressBar totalProgressBar;
     private JLabel totalSpentLabel;
     private JLabel totalRemainingLabel;
+    private JLabel alertLabel;
     private JTable budgetTable;
     private DefaultTableModel tableModel;
+    private final DeferredRefresh refresh = new DeferredRefresh(this::updateBudgetData);
 
     // Predefined expense categories
     private final String[] expenseCategories = {"Food", "Transport", "Housing", "Entertainment", "Utilities", "Education", "Healthcare", "Shopping", "Other"};
 
     // Table column names
-    private final String[] columnNames = {"Category", "Budget Amount", "Spent", "Remaining", "Usage", "Description"};
+    private final String[] columnNames = {"Category", "Budget Amount", "Spent", "Remaining", "Usage", "Forecast", "Description"};
 
     /**
      * Constructor
@@ -69,8 +76,7 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         budgetSettingsPanel = createBudgetSettingsPanel();
         add(budgetSettingsPanel, BorderLayout.CENTER);
 
-        // Update data display
-        updateBudgetData();
+        // Data is displayed when the panel is first shown
     }
 
     /**
@@ -78,7 +84,16 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
      */
     @Override
     public void onBudgetDataChanged() {
-        updateBudgetData();
+        refresh.invalidate();
+    }
+
+    /**
+     * Budget threshold crossing callback
+     */
+    @Override
+    public void onBudgetThresholdCrossed(BudgetAlert alert) {
+        alertLabel.setText("Alert: " + alert);
+        alertLabel.setForeground(alert.getThreshold() >= 100 ? new Color(231, 76, 60) : new Color(243, 156, 18));
     }
 
     /**
@@ -86,7 +101,15 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
      */
     @Override
     public void onTransactionDataChanged() {
-        updateBudgetData();
+        refresh.invalidate();
+    }
+
+    /**
+     * Card visibility callback, refreshes once if data changed while hidden
+     */
+    @Override
+    public void setCardVisible(boolean visible) {
+        refresh.setVisible(visible);
     }
 
     /**
@@ -141,7 +164,7 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         panel.add(inputPanel, BorderLayout.NORTH);
 
         // Create progress panel
-        JPanel progressPanel = new JPanel(new GridLayout(3, 1, 0, 5));
+        JPanel progressPanel = new JPanel(new GridLayout(4, 1, 0, 5));
         progressPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
 
         // Total progress bar
@@ -161,6 +184,11 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         progressPanel.add(totalSpentLabel);
         progressPanel.add(totalRemainingLabel);
 
+        // Latest threshold alert
+        alertLabel = new JLabel(" ", SwingConstants.LEFT);
+        alertLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        progressPanel.add(alertLabel);
+
         panel.add(progressPanel, BorderLayout.CENTER);
 
         return panel;
@@ -210,6 +238,7 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         budgetTable.getColumnModel().getColumn(1).setCellRenderer(rightRenderer);
         budgetTable.getColumnModel().getColumn(2).setCellRenderer(rightRenderer);
         budgetTable.getColumnModel().getColumn(3).setCellRenderer(rightRenderer);
+        budgetTable.getColumnModel().getColumn(5).setCellRenderer(rightRenderer);
 
         JScrollPane scrollPane = new JScrollPane(budgetTable);
         panel.add(scrollPane, BorderLayout.CENTER);
@@ -236,9 +265,14 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         deleteButton.setFont(new Font("Arial", Font.PLAIN, 14));
         deleteButton.addActionListener(e -> deleteSelectedBudget());
 
+        JButton alertButton = new JButton("Alert Thresholds");
+        alertButton.setFont(new Font("Arial", Font.PLAIN, 14));
+        alertButton.addActionListener(e -> editAlertThresholds());
+
         panel.add(addButton);
         panel.add(editButton);
         panel.add(deleteButton);
+        panel.add(alertButton);
 
         return panel;
     }
@@ -258,21 +292,16 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
             }
 
             // Check if total budget already exists
-            Budget totalBudget = null;
-            List<Budget> existingBudgets = budgetService.getAllBudgets();
-
-            for (Budget budget : existingBudgets) {
-                if (budget.getCategory().equals("Total Budget")) {
-                    totalBudget = budget;
-                    break;
-                }
-            }
+            Budget totalBudget = budgetService.getTotalBudget();
 
             if (totalBudget == null) {
-                // Create new total budget
+                // Create new total budget, repeating every calendar month so it does not lapse next month
                 totalBudget = new Budget();
-                totalBudget.setCategory("Total Budget");
+                totalBudget.setCategory(Budget.TOTAL_BUDGET);
                 totalBudget.setAmount(amount);
+                totalBudget.setRecurrence(Budget.Recurrence.MONTHLY);
+                totalBudget.setStartDate(recurrenceAnchor(Budget.Recurrence.MONTHLY));
+                totalBudget.setEndDate(null);
                 totalBudget.setDescription("Monthly total budget");
                 budgetService.addBudget(totalBudget);
             } else {
@@ -294,6 +323,43 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         }
     }
 
+    /**
+     * Edit the usage percentages that raise budget alerts
+     */
+    private void editAlertThresholds() {
+        StringBuilder current = new StringBuilder();
+        for (double threshold : budgetService.getAlertThresholds()) {
+            if (current.length() > 0) {
+                current.append(", ");
+            }
+            current.append(new DecimalFormat("0.##").format(threshold));
+        }
+
+        String input = (String) JOptionPane.showInputDialog(this,
+                "Alert when budget usage reaches (%, comma separated):",
+                "Alert Thresholds",
+                JOptionPane.PLAIN_MESSAGE,
+                null, null, current.toString());
+        if (input == null) {
+            return;
+        }
+
+        try {
+            String[] parts = input.trim().isEmpty() ? new String[0] : input.split(",");
+            double[] thresholds = new double[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                thresholds[i] = Double.parseDouble(parts[i].trim());
+            }
+            budgetService.setAlertThresholds(thresholds);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            JOptionPane.showMessageDialog(this,
+                    "Please enter positive numbers separated by commas",
+                    "Input Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Show add budget dialog
      */
@@ -318,14 +384,7 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         }
 
         String category = (String) tableModel.getValueAt(selectedRow, 0);
-        Budget selectedBudget = null;
-
-        for (Budget budget : budgetService.getAllBudgets()) {
-            if (budget.getCategory().equals(category)) {
-                selectedBudget = budget;
-                break;
-            }
-        }
+        Budget selectedBudget = budgetService.getActiveBudget(category, new Date());
 
         if (selectedBudget != null && showBudgetDialog(selectedBudget, "Edit Category Budget")) {
             budgetService.updateBudget(selectedBudget);
@@ -347,23 +406,16 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
 
         String category = (String) tableModel.getValueAt(selectedRow, 0);
 
-        // Find budget ID
-        int budgetId = -1;
-        for (Budget budget : budgetService.getAllBudgets()) {
-            if (budget.getCategory().equals(category)) {
-                budgetId = budget.getId();
-                break;
-            }
-        }
+        Budget selectedBudget = budgetService.getActiveBudget(category, new Date());
 
-        if (budgetId != -1) {
+        if (selectedBudget != null) {
             int confirm = JOptionPane.showConfirmDialog(this,
                     "Are you sure you want to delete the budget for " + category + "?",
                     "Confirm Delete",
                     JOptionPane.YES_NO_OPTION);
 
             if (confirm == JOptionPane.YES_OPTION) {
-                budgetService.deleteBudget(budgetId);
+                budgetService.deleteBudget(selectedBudget.getId());
             }
         }
     }
@@ -374,12 +426,12 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
     private boolean showBudgetDialog(Budget budget, String title) {
         // Create dialog
         JDialog dialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), title, true);
-        dialog.setSize(400, 300);
+        dialog.setSize(400, 340);
         dialog.setLocationRelativeTo(this);
         dialog.setLayout(new BorderLayout());
 
         // Create form panel
-        JPanel formPanel = new JPanel(new GridLayout(5, 2, 10, 10));
+        JPanel formPanel = new JPanel(new GridLayout(6, 2, 10, 10));
         formPanel.setBorder(new EmptyBorder(15, 15, 5, 15));
 
         // Category selection
@@ -387,7 +439,7 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         JComboBox<String> categoryCombo = new JComboBox<>(expenseCategories);
 
         // If editing, set current category
-        if (budget.getCategory() != null && !budget.getCategory().equals("Total Budget")) {
+        if (budget.getCategory() != null && !budget.isTotalBudget()) {
             categoryCombo.setSelectedItem(budget.getCategory());
         }
 
@@ -420,6 +472,11 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         JLabel endDateValue = new JLabel(new SimpleDateFormat("yyyy-MM-dd").format(cal.getTime()));
         endDatePanel.add(endDateValue);
 
+        // Recurrence
+        JLabel repeatLabel = new JLabel("Repeat:");
+        JComboBox<Budget.Recurrence> repeatCombo = new JComboBox<>(Budget.Recurrence.values());
+        repeatCombo.setSelectedItem(budget.getRecurrence());
+
         // Add components to form
         formPanel.add(categoryLabel);
         formPanel.add(categoryCombo);
@@ -429,6 +486,8 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         formPanel.add(startDatePanel);
         formPanel.add(endDateLabel);
         formPanel.add(endDatePanel);
+        formPanel.add(repeatLabel);
+        formPanel.add(repeatCombo);
         formPanel.add(descLabel);
         formPanel.add(descField);
 
@@ -466,6 +525,21 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
                 budget.setAmount(amount);
                 budget.setDescription(descField.getText());
 
+                Budget.Recurrence recurrence = (Budget.Recurrence) repeatCombo.getSelectedItem();
+                if (recurrence != Budget.Recurrence.NONE) {
+                    // Recurring budgets repeat from their anchor date until deleted; an edit that
+                    // keeps the recurrence keeps the anchor so the periods do not move
+                    if (recurrence != budget.getRecurrence() || budget.getStartDate() == null) {
+                        budget.setStartDate(recurrenceAnchor(recurrence));
+                    }
+                    budget.setEndDate(null);
+                    budget.setRecurrence(recurrence);
+                    result[0] = true;
+                    dialog.dispose();
+                    return;
+                }
+                budget.setRecurrence(Budget.Recurrence.NONE);
+
                 // Set dates
                 SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
                 try {
@@ -503,116 +577,19 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
     }
 
     /**
-     * Update budget data display
-     */
-    private void updateBudgetData() {
-        updateTotalBudgetInfo();
-        updateBudgetTable();
-    }
-
-    /**
-     * Get current month transactions
+     * First day of the current period of a new recurring budget:
+     * Monday of this week, or the first day of this month, quarter or year
      */
-    private List<Transcation> getCurrentMonthTransactions() {
-        List<Transcation> allTransactions = transactionService.getAllTransactions();
-        List<Transcation> currentMonthTransactions = new ArrayList<>();
-
-        if (allTransactions.isEmpty()) {
-            System.out.println("No transaction data");
-            return currentMonthTransactions;
-        }
-
-        // Get current month's year and month
-        Calendar cal = Calendar.getInstance();
-        int currentYear = cal.get(Calendar.YEAR);
-        int currentMonth = cal.get(Calendar.MONTH);
-
-        System.out.println("\n===== Finding current month(" + currentYear + "-" + (currentMonth + 1) + ") transactions =====");
-
-        // Filter current month transactions
-        for (Transcation transaction : allTransactions) {
-            if (transaction == null || transaction.getDate() == null) {
-                System.out.println("Skipping: transaction or date is null");
-                continue;
-            }
-
-            // Get transaction date's year and month
-            Calendar transCal = Calendar.getInstance();
-            transCal.setTime(transaction.getDate());
-            int transYear = transCal.get(Calendar.YEAR);
-            int transMonth = transCal.get(Calendar.MONTH);
-
-            // Only match year and month
-            boolean isCurrentMonth = (transYear == currentYear && transMonth == currentMonth);
-
-            System.out.println("Transaction: " +
-                    "ID=" + transaction.getId() +
-                    ", Category=" + transaction.getCategory() +
-                    ", Amount=" + transaction.getAmount() +
-                    ", IsIncome=" + transaction.isIncome() +
-                    ", Date=" + new SimpleDateFormat("yyyy-MM-dd").format(transaction.getDate()) +
-                    ", IsCurrentMonth=" + isCurrentMonth);
-
-            if (isCurrentMonth) {
-                currentMonthTransactions.add(transaction);
-            }
-        }
-
-        System.out.println("Current month transactions count: " + currentMonthTransactions.size());
-        return currentMonthTransactions;
+    private Date recurrenceAnchor(Budget.Recurrence recurrence) {
+        return DateKeys.startOfEpochDay(recurrence.calendarPeriodStart(LocalDate.now()).toEpochDay());
     }
 
     /**
-     * Calculate current month total expense (excluding income)
-     */
-    private double getCurrentMonthTotalExpense() {
-        List<Transcation> currentMonthTransactions = getCurrentMonthTransactions();
-        double totalExpense = 0;
-
-        for (Transcation transaction : currentMonthTransactions) {
-            if (!transaction.isIncome()) { // Only count expenses
-                totalExpense += transaction.getAmount();
-            }
-        }
-
-        return totalExpense;
-    }
-
-    /**
-     * Calculate current month category expenses (excluding income)
+     * Update budget data display
      */
-    private Map<String, Double> getCurrentMonthCategoryExpenses() {
-        List<Transcation> currentMonthTransactions = getCurrentMonthTransactions();
-        Map<String, Double> categoryExpenses = new HashMap<>();
-
-        System.out.println("\n===== Calculating category expenses =====");
-        System.out.println("Current month transactions count: " + currentMonthTransactions.size());
-
-        for (Transcation transaction : currentMonthTransactions) {
-            System.out.println("Processing transaction: " +
-                    "Category=" + transaction.getCategory() +
-                    ", Amount=" + transaction.getAmount() +
-                    ", IsIncome=" + transaction.isIncome());
-
-            if (!transaction.isIncome()) { // Only count expenses, exclude income
-                String category = transaction.getCategory();
-                double amount = transaction.getAmount();
-                Double currentTotal = categoryExpenses.getOrDefault(category, 0.0);
-                categoryExpenses.put(category, currentTotal + amount);
-
-                System.out.println("  → Category[" + category + "] cumulative expense: " + (currentTotal + amount));
-            } else {
-                System.out.println("  → Skipped (income)");
-            }
-        }
-
-        System.out.println("Category expenses results:");
-        for (Map.Entry<String, Double> entry : categoryExpenses.entrySet()) {
-            System.out.println("  - " + entry.getKey() + ": " + entry.getValue());
-        }
-        System.out.println("========================\n");
-
-        return categoryExpenses;
+    private void updateBudgetData() {
+        updateTotalBudgetInfo();
+        updateBudgetTable();
     }
 
     /**
@@ -620,24 +597,27 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
      */
     private void updateTotalBudgetInfo() {
         double totalBudgetAmount = 0;
-
-        // Find total budget
-        for (Budget budget : budgetService.getAllBudgets()) {
-            if (budget.getCategory().equals("Total Budget")) {
-                totalBudgetAmount = budget.getAmount();
-                totalBudgetField.setText(String.format("%.2f", totalBudgetAmount));
-                break;
-            }
+        double totalSpent;
+        SpendingForecast forecast = null;
+
+        Budget totalBudget = budgetService.getTotalBudget();
+        if (totalBudget != null) {
+            totalBudgetAmount = totalBudget.getAmount();
+            totalBudgetField.setText(String.format("%.2f", totalBudgetAmount));
+            totalSpent = budgetService.calculateBudgetSpending(totalBudget);
+            forecast = budgetService.forecastBudgetSpending(totalBudget);
+        } else {
+            // Current month total expense (expenses only, not income)
+            totalSpent = budgetService.getSpendingAggregation().getCurrentMonth().getTotalExpense();
         }
-
-        // Calculate current month total expense (expenses only, not income)
-        double totalSpent = getCurrentMonthTotalExpense();
         double remaining = totalBudgetAmount - totalSpent;
         double percentage = (totalBudgetAmount > 0) ? (totalSpent / totalBudgetAmount) * 100 : 0;
 
         // Update UI
         DecimalFormat df = new DecimalFormat("#,##0.00");
-        totalSpentLabel.setText("Current Month Spent: $" + df.format(totalSpent));
+        String forecastText = forecast != null && forecast.getProjected() > totalSpent
+                ? " (forecast $" + df.format(forecast.getProjected()) + ")" : "";
+        totalSpentLabel.setText("Current Month Spent: $" + df.format(totalSpent) + forecastText);
         totalRemainingLabel.setText("Remaining: $" + df.format(remaining));
 
         // Update progress bar
@@ -666,19 +646,8 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
         // Clear table
         tableModel.setRowCount(0);
 
-        // Get all budgets
-        List<Budget> allBudgets = budgetService.getAllBudgets();
-
-        // Filter category budgets (exclude total budget)
-        List<Budget> categoryBudgets = new ArrayList<>();
-        for (Budget budget : allBudgets) {
-            if (!budget.getCategory().equals("Total Budget")) {
-                categoryBudgets.add(budget);
-            }
-        }
-
-        // Get current month category expenses (only expenses, not income)
-        Map<String, Double> categoryExpenses = getCurrentMonthCategoryExpenses();
+        // Category budgets active today (total budget excluded)
+        List<Budget> categoryBudgets = budgetService.getActiveCategoryBudgets(new Date());
 
         // Add budgets to table
         DecimalFormat df = new DecimalFormat("#,##0.00");
@@ -687,11 +656,12 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
             String category = budget.getCategory();
             double budgetAmount = budget.getAmount();
 
-            // Get current month expense for this category (0 if none)
-            double spentAmount = categoryExpenses.getOrDefault(category, 0.0);
-
-            double remainingAmount = budgetAmount - spentAmount;
-            double percentage = (budgetAmount > 0) ? (spentAmount / budgetAmount) * 100 : 0;
+            // Current month expense for this category (0 if none)
+            double spentAmount = budgetService.calculateBudgetSpending(budget);
+            double remainingAmount = budgetService.calculateBudgetRemaining(budget);
+            double percentage = budgetService.calculateBudgetUsagePercentage(budget);
+            // Projected spending at the end of the period
+            SpendingForecast forecast = budgetService.forecastBudgetSpending(budget);
 
             Object[] rowData = {
                     category,
@@ -699,6 +669,7 @@ public class BudgetPanel extends JPanel implements BudgetObserver, TransactionOb
                     "$" + df.format(spentAmount),
                     "$" + df.format(remainingAmount),
                     percentage, // This will be rendered as a progress bar
+                    "$" + df.format(forecast.getProjected()),
                     budget.getDescription()
             };
 
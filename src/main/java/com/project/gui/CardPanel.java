@@ -0,0 +1,12 @@
+package com.project.gui;
+
+/**
+ * Panel shown as a card of the main window
+ * Cards only refresh while they are visible; changes made while hidden are merged into one refresh when shown
+ */
+public interface CardPanel {
+    /**
+     * Called by the main window when the card is shown or hidden
+     */
+    void setCardVisible(boolean visible);
+}
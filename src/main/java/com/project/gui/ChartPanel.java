@@ -1,6 +1,7 @@
 package com.project.gui;
 
-import com.project.model.Transcation;
+import com.project.service.AggregationPipeline;
+import com.project.service.RollupTotals;
 import com.project.service.TranscationService;
 import com.project.service.TransactionObserver;
 
@@ -9,21 +10,26 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.geom.Arc2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.text.DecimalFormat;
 import java.util.*;
 import java.util.List;
 
 /**
  * Chart panel showing income and expense distribution in pie charts
+ * Chart data is aggregated on the background pipeline; the event thread only shows the result
  */
-public class ChartPanel extends JPanel implements TransactionObserver {
+public class ChartPanel extends JPanel implements TransactionObserver, CardPanel {
     private TranscationService transactionService;
+    private AggregationPipeline.Channel<ChartData> chartChannel;
     private PieChartPanel incomeChartPanel;
     private PieChartPanel expenseChartPanel;
     private JPanel summaryPanel;
+    private final DeferredRefresh refresh = new DeferredRefresh(this::updateChartData);
 
-    public ChartPanel(TranscationService transactionService) {
+    public ChartPanel(TranscationService transactionService, AggregationPipeline pipeline) {
         this.transactionService = transactionService;
+        this.chartChannel = pipeline.channel(this::computeChartData, this::showChartData);
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(10, 10, 10, 10));
 
@@ -55,8 +61,7 @@ public class ChartPanel extends JPanel implements TransactionObserver {
         summaryPanel = createSummaryPanel();
         add(summaryPanel, BorderLayout.SOUTH);
 
-        // Update chart data
-        updateChartData();
+        // Chart data is computed when the panel is first shown
     }
 
     private JPanel createChartWithLabel(JPanel chartPanel, String title) {
@@ -129,44 +134,42 @@ public class ChartPanel extends JPanel implements TransactionObserver {
         return panel;
     }
 
+    /**
+     * Recompute the charts in the background
+     */
     public void updateChartData() {
-        // Get transactions
-        List<Transcation> transactions = transactionService.getAllTransactions();
-
-        // Calculate income by category
-        Map<String, Double> incomeByCategoryMap = new HashMap<>();
-        // Calculate expense by category
-        Map<String, Double> expenseByCategoryMap = new HashMap<>();
-
-        for (Transcation transaction : transactions) {
-            String category = transaction.getCategory();
-            double amount = transaction.getAmount();
-
-            if (transaction.isIncome()) {
-                // Update income map
-                incomeByCategoryMap.put(category,
-                        incomeByCategoryMap.getOrDefault(category, 0.0) + amount);
-            } else {
-                // Update expense map
-                expenseByCategoryMap.put(category,
-                        expenseByCategoryMap.getOrDefault(category, 0.0) + amount);
-            }
-        }
+        chartChannel.request();
+    }
+
+    /**
+     * Read the chart data from the service's rollups (background thread)
+     * The totals per category are maintained by the service, so no transactions are copied or scanned
+     */
+    private ChartData computeChartData() {
+        RollupTotals totals = transactionService.getTotals();
+        return new ChartData(totals.getCategoryIncomes(), totals.getCategoryExpenses(),
+                totals.getIncome(), totals.getExpense(), totals.getTransactionCount());
+    }
 
+    /**
+     * Show aggregated chart data (event thread)
+     */
+    private void showChartData(ChartData chartData) {
         // Update income chart
-        incomeChartPanel.updateData(incomeByCategoryMap);
+        incomeChartPanel.updateData(chartData.incomeByCategory);
 
         // Update expense chart
-        expenseChartPanel.updateData(expenseByCategoryMap);
+        expenseChartPanel.updateData(chartData.expenseByCategory);
 
         // Update summary panel
-        updateSummaryPanel(transactions.size());
+        updateSummaryPanel(chartData);
     }
 
-    private void updateSummaryPanel(int transactionCount) {
-        double totalIncome = transactionService.getTotalIncome();
-        double totalExpense = transactionService.getTotalExpense();
-        double netBalance = transactionService.getNetBalance();
+    private void updateSummaryPanel(ChartData chartData) {
+        double totalIncome = chartData.totalIncome;
+        double totalExpense = chartData.totalExpense;
+        double netBalance = totalIncome - totalExpense;
+        int transactionCount = chartData.transactionCount;
 
         JLabel totalIncomeValue = (JLabel) summaryPanel.getClientProperty("totalIncomeValue");
         totalIncomeValue.setText(String.format("$%.2f", totalIncome));
@@ -184,15 +187,46 @@ public class ChartPanel extends JPanel implements TransactionObserver {
 
     @Override
     public void onTransactionDataChanged() {
-        // Update chart data when notified of changes
-        updateChartData();
+        // Update chart data when notified of changes (deferred while hidden)
+        refresh.invalidate();
+    }
+
+    @Override
+    public void setCardVisible(boolean visible) {
+        refresh.setVisible(visible);
+    }
+
+    /**
+     * Immutable chart data computed off the event thread
+     */
+    private static class ChartData {
+        final Map<String, Double> incomeByCategory;
+        final Map<String, Double> expenseByCategory;
+        final double totalIncome;
+        final double totalExpense;
+        final int transactionCount;
+
+        ChartData(Map<String, Double> incomeByCategory, Map<String, Double> expenseByCategory,
+                  double totalIncome, double totalExpense, int transactionCount) {
+            this.incomeByCategory = Collections.unmodifiableMap(incomeByCategory);
+            this.expenseByCategory = Collections.unmodifiableMap(expenseByCategory);
+            this.totalIncome = totalIncome;
+            this.totalExpense = totalExpense;
+            this.transactionCount = transactionCount;
+        }
     }
 
     /**
      * Custom Pie Chart Panel
      */
     private class PieChartPanel extends JPanel {
+        private final Font messageFont = new Font("Arial", Font.BOLD, 14);
+        private final Font legendFont = new Font("Arial", Font.PLAIN, 12);
+
         private Map<String, Double> data = new HashMap<>();
+        // Rendered chart, reused by repaints until the data or the size changes
+        private BufferedImage cache;
+        private double cacheScale;
         private String title;
         private final boolean isIncome;
         private final Color[] INCOME_COLORS = {
@@ -225,17 +259,43 @@ public class ChartPanel extends JPanel implements TransactionObserver {
 
         public void updateData(Map<String, Double> data) {
             this.data = new HashMap<>(data);
+            cache = null;
             repaint();
         }
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
             int width = getWidth();
             int height = getHeight();
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+
+            // Render at device resolution so the cached image stays sharp on scaled displays
+            double scale = ((Graphics2D) g).getTransform().getScaleX();
+            if (cache == null || cacheScale != scale
+                    || cache.getWidth() != (int) Math.ceil(width * scale)
+                    || cache.getHeight() != (int) Math.ceil(height * scale)) {
+                cache = new BufferedImage((int) Math.ceil(width * scale), (int) Math.ceil(height * scale), BufferedImage.TYPE_INT_ARGB);
+                cacheScale = scale;
+                Graphics2D g2 = cache.createGraphics();
+                try {
+                    g2.scale(scale, scale);
+                    renderChart(g2, width, height);
+                } finally {
+                    g2.dispose();
+                }
+            }
+            g.drawImage(cache, 0, 0, width, height, null);
+        }
+
+        /**
+         * Draw the pie and legend; only called when the cached image is out of date
+         */
+        private void renderChart(Graphics2D g2, int width, int height) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
             // Get total value
             double total = 0;
@@ -245,7 +305,8 @@ public class ChartPanel extends JPanel implements TransactionObserver {
 
             // If no data, show message
             if (data.isEmpty() || total == 0) {
-                g2.setFont(new Font("Arial", Font.BOLD, 14));
+                g2.setColor(Color.BLACK);
+                g2.setFont(messageFont);
                 String message = "No data available";
                 FontMetrics metrics = g2.getFontMetrics();
                 int messageWidth = metrics.stringWidth(message);
@@ -300,6 +361,7 @@ public class ChartPanel extends JPanel implements TransactionObserver {
             int legendItemHeight = 20;
 
             // Show all items instead of just top 5
+            g2.setFont(legendFont);
             for (int i = 0; i < legendItems.size(); i++) {
                 LegendItem item = legendItems.get(i);
 
@@ -309,7 +371,6 @@ public class ChartPanel extends JPanel implements TransactionObserver {
 
                 // Draw text
                 g2.setColor(Color.BLACK);
-                g2.setFont(new Font("Arial", Font.PLAIN, 12));
                 String text = String.format("%s: $%.2f (%.1f%%)",
                         item.category, item.value, item.percentage * 100);
                 g2.drawString(text, legendX + 15, legendY + 10 + i * legendItemHeight);
@@ -0,0 +1,38 @@
+package com.project.gui;
+
+/**
+ * Runs a panel refresh right away while the panel is visible, otherwise remembers that it is due
+ * Any number of changes while hidden result in a single refresh when the panel is shown again
+ */
+class DeferredRefresh {
+    private final Runnable refresh;
+    private boolean visible;
+    // Starts dirty so the first show builds the panel's data
+    private boolean dirty = true;
+
+    DeferredRefresh(Runnable refresh) {
+        this.refresh = refresh;
+    }
+
+    /**
+     * Data behind the panel has changed
+     */
+    void invalidate() {
+        if (visible) {
+            refresh.run();
+        } else {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Panel was shown or hidden
+     */
+    void setVisible(boolean visible) {
+        this.visible = visible;
+        if (visible && dirty) {
+            dirty = false;
+            refresh.run();
+        }
+    }
+}
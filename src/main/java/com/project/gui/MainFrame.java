@@ -2,7 +2,9 @@ package com.project.gui;
 
 import com.project.model.Transcation;
 import com.project.gui.ChartPanel;
+import com.project.service.AggregationPipeline;
 import com.project.service.BudgetService;
+import com.project.service.MonthlyReportGenerator;
 import com.project.service.TranscationService;
 
 import javax.swing.*;
@@ -10,7 +12,9 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Application main window
@@ -25,13 +29,18 @@ public class MainFrame extends JFrame {
     private JPanel chartPanel;
     private JPanel budgetPanel;
     private JPanel aiAnalysisPanel;
+    private JPanel reportPanel;
 
     private TranscationService transactionService;
     private BudgetService budgetService;
+    private AggregationPipeline aggregationPipeline;
+    // Cards told when they are shown or hidden, so hidden cards can defer their refresh
+    private final Map<String, CardPanel> cards = new HashMap<>();
 
     public MainFrame() {
         transactionService = new TranscationService();
         budgetService = new BudgetService(transactionService);
+        aggregationPipeline = new AggregationPipeline(SwingUtilities::invokeLater);
         initializeUI();
     }
 
@@ -79,6 +88,7 @@ public class MainFrame extends JFrame {
         JButton chartBtn = createModuleButton("Charts", "chart");
         JButton budgetBtn = createModuleButton("Budget", "budget");
         JButton aiAnalysisBtn = createModuleButton("AI Analysis", "aianalysis");
+        JButton reportBtn = createModuleButton("Reports", "report");
 
         // Add components to left panel
         leftPanel.add(titleLabel);
@@ -89,6 +99,8 @@ public class MainFrame extends JFrame {
         leftPanel.add(budgetBtn);
         leftPanel.add(Box.createVerticalStrut(10));
         leftPanel.add(aiAnalysisBtn);
+        leftPanel.add(Box.createVerticalStrut(10));
+        leftPanel.add(reportBtn);
         leftPanel.add(Box.createVerticalGlue());
 
         contentPane.add(leftPanel, BorderLayout.WEST);
@@ -124,26 +136,48 @@ public class MainFrame extends JFrame {
         rightPanel.setLayout(cardLayout);
 
         // Initialize each module panel
-        transactionPanel = new TranscationPanel(transactionService);
-        chartPanel = new ChartPanel(transactionService);
+        transactionPanel = new TranscationPanel(transactionService, aggregationPipeline);
+        chartPanel = new ChartPanel(transactionService, aggregationPipeline);
         budgetPanel = new BudgetPanel(budgetService, transactionService);
 
         // Use AIPanel as the AI Analysis panel
         aiAnalysisPanel = new AIPanel(budgetService, transactionService);
+        reportPanel = new ReportPanel(new MonthlyReportGenerator(transactionService, budgetService), budgetService, transactionService);
 
         // Add panels to card layout
-        rightPanel.add(transactionPanel, "transaction");
-        rightPanel.add(chartPanel, "chart");
-        rightPanel.add(budgetPanel, "budget");
-        rightPanel.add(aiAnalysisPanel, "aianalysis");
+        addCard(transactionPanel, "transaction");
+        addCard(chartPanel, "chart");
+        addCard(budgetPanel, "budget");
+        addCard(aiAnalysisPanel, "aianalysis");
+        addCard(reportPanel, "report");
 
         contentPane.add(rightPanel, BorderLayout.CENTER);
     }
 
+    /**
+     * Add a module panel as a card
+     */
+    private void addCard(JPanel panel, String name) {
+        rightPanel.add(panel, name);
+        if (panel instanceof CardPanel) {
+            cards.put(name, (CardPanel) panel);
+        }
+    }
+
     /**
      * Show specified panel
+     * Hidden cards are told first, then the shown card refreshes if anything changed while it was hidden
      */
     private void showPanel(String panelName) {
+        for (Map.Entry<String, CardPanel> card : cards.entrySet()) {
+            if (!card.getKey().equals(panelName)) {
+                card.getValue().setCardVisible(false);
+            }
+        }
         cardLayout.show(rightPanel, panelName);
+        CardPanel shown = cards.get(panelName);
+        if (shown != null) {
+            shown.setCardVisible(true);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package com.project.gui;
+
+import com.project.model.Budget;
+import com.project.service.BudgetService;
+import com.project.service.BudgetSimulator;
+import com.project.service.MonthlyReport;
+import com.project.service.MonthlyReportGenerator;
+import com.project.service.SimulationResult;
+import com.project.service.TransactionObserver;
+import com.project.service.TranscationService;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.TitledBorder;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Monthly report panel
+ * Shows income, expense, month-over-month change and over-budget categories of every month
+ */
+public class ReportPanel extends JPanel implements TransactionObserver {
+    private MonthlyReportGenerator reportGenerator;
+    private BudgetService budgetService;
+    private BudgetSimulator budgetSimulator;
+
+    private DefaultTableModel tableModel;
+    private JLabel statusLabel;
+    private JButton generateButton;
+    private JButton replayButton;
+
+    // Budget amount factors replayed by 'Replay Budgets'
+    private static final double[] REPLAY_FACTORS = {0.9, 1.0, 1.1, 1.2};
+
+    // Table column names
+    private final String[] columnNames = {"Month", "Transactions", "Income", "Expense", "Net", "Expense Change", "Over Budget"};
+
+    /**
+     * Constructor
+     */
+    public ReportPanel(MonthlyReportGenerator reportGenerator, BudgetService budgetService, TranscationService transactionService) {
+        this.reportGenerator = reportGenerator;
+        this.budgetService = budgetService;
+        this.budgetSimulator = new BudgetSimulator(reportGenerator);
+        setLayout(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        // Register as observer to tell the user when reports are out of date
+        transactionService.addObserver(this);
+
+        JLabel titleLabel = new JLabel("Monthly Reports", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        titleLabel.setBorder(new EmptyBorder(0, 0, 10, 0));
+        add(titleLabel, BorderLayout.NORTH);
+
+        add(createTablePanel(), BorderLayout.CENTER);
+        add(createButtonPanel(), BorderLayout.SOUTH);
+    }
+
+    /**
+     * Create report table panel
+     */
+    private JPanel createTablePanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createTitledBorder(
+                BorderFactory.createEtchedBorder(),
+                "Reports",
+                TitledBorder.LEFT,
+                TitledBorder.TOP,
+                new Font("Arial", Font.BOLD, 14)
+        ));
+
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false; // Make cells non-editable
+            }
+        };
+
+        JTable table = new JTable(tableModel);
+        table.setRowHeight(25);
+        table.getTableHeader().setReorderingAllowed(false);
+
+        // Set right alignment for amount columns
+        DefaultTableCellRenderer rightRenderer = new DefaultTableCellRenderer();
+        rightRenderer.setHorizontalAlignment(JLabel.RIGHT);
+        for (int column = 1; column <= 5; column++) {
+            table.getColumnModel().getColumn(column).setCellRenderer(rightRenderer);
+        }
+
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+        return panel;
+    }
+
+    /**
+     * Create button panel
+     */
+    private JPanel createButtonPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 0));
+
+        statusLabel = new JLabel("Click 'Generate Reports' to build the monthly reports");
+        statusLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        panel.add(statusLabel, BorderLayout.CENTER);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+
+        replayButton = new JButton("Replay Budgets");
+        replayButton.setFont(new Font("Arial", Font.PLAIN, 14));
+        replayButton.addActionListener(e -> replayBudgets());
+        buttons.add(replayButton);
+
+        generateButton = new JButton("Generate Reports");
+        generateButton.setFont(new Font("Arial", Font.PLAIN, 14));
+        generateButton.addActionListener(e -> generateReports());
+        buttons.add(generateButton);
+
+        panel.add(buttons, BorderLayout.EAST);
+
+        return panel;
+    }
+
+    /**
+     * Aggregate the months off the event thread, then add the budget lines and fill the table
+     */
+    private void generateReports() {
+        generateButton.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        new SwingWorker<List<MonthlyReport>, Void>() {
+            private int recomputed;
+
+            @Override
+            protected List<MonthlyReport> doInBackground() {
+                List<MonthlyReport> months = reportGenerator.aggregate();
+                recomputed = reportGenerator.getLastRecomputedCount();
+                return months;
+            }
+
+            @Override
+            protected void done() {
+                generateButton.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    // Budget lines read the budget service, which is only updated on this thread
+                    showReports(reportGenerator.addBudgetLines(get()), recomputed);
+                } catch (Exception e) {
+                    Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Error generating reports: " + cause.getMessage(),
+                            "Report Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Fill the table with the reports
+     */
+    private void showReports(List<MonthlyReport> reports, int recomputed) {
+        tableModel.setRowCount(0);
+        DecimalFormat df = new DecimalFormat("#,##0.00");
+        DecimalFormat changeFormat = new DecimalFormat("+#,##0.00;-#,##0.00");
+
+        // Most recent month first
+        for (int i = reports.size() - 1; i >= 0; i--) {
+            MonthlyReport report = reports.get(i);
+
+            StringBuilder overBudget = new StringBuilder();
+            for (MonthlyReport.BudgetLine line : report.getBudgetLines()) {
+                if (line.isOverBudget()) {
+                    if (overBudget.length() > 0) {
+                        overBudget.append(", ");
+                    }
+                    overBudget.append(line.getCategory()).append(" (").append(df.format(-line.getVariance())).append(")");
+                }
+            }
+
+            tableModel.addRow(new Object[]{
+                    report.getMonth(),
+                    report.getTransactionCount(),
+                    "$" + df.format(report.getIncome()),
+                    "$" + df.format(report.getExpense()),
+                    "$" + df.format(report.getNet()),
+                    report.hasPrevious() ? changeFormat.format(report.getExpenseChange()) : "",
+                    overBudget.toString()
+            });
+        }
+
+        statusLabel.setText(reports.size() + " months in report, " + recomputed + " months recomputed");
+    }
+
+    /**
+     * Replay the current budgets, scaled by each replay factor, against every month of history
+     * The scaled copies are made here; aggregating the months and replaying them runs off the event thread
+     */
+    private void replayBudgets() {
+        List<Budget> current = budgetService.getActiveBudgets(new Date());
+        if (current.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "There are no active budgets to replay.", "Replay Budgets", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        List<List<Budget>> scenarios = new ArrayList<>();
+        for (double factor : REPLAY_FACTORS) {
+            List<Budget> scenario = new ArrayList<>();
+            for (Budget budget : current) {
+                Budget scaled = new Budget(budget.getCategory(), budget.getAmount() * factor,
+                        budget.getStartDate(), budget.getEndDate(), budget.getDescription());
+                scaled.setRecurrence(budget.getRecurrence());
+                scenario.add(scaled);
+            }
+            scenarios.add(scenario);
+        }
+
+        replayButton.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        new SwingWorker<List<SimulationResult>, Void>() {
+            @Override
+            protected List<SimulationResult> doInBackground() {
+                return budgetSimulator.simulate(scenarios);
+            }
+
+            @Override
+            protected void done() {
+                replayButton.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    showReplayResults(current, get());
+                } catch (Exception e) {
+                    Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(ReportPanel.this,
+                            "Error replaying budgets: " + cause.getMessage(),
+                            "Replay Budgets",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Show how often each budget would have been exceeded at every replay factor
+     */
+    private void showReplayResults(List<Budget> current, List<SimulationResult> results) {
+        DecimalFormat df = new DecimalFormat("#,##0.00");
+        StringBuilder text = new StringBuilder();
+        for (int b = 0; b < current.size(); b++) {
+            text.append(current.get(b).getCategory()).append(":\n");
+            for (int s = 0; s < REPLAY_FACTORS.length; s++) {
+                SimulationResult.BudgetOutcome outcome = results.get(s).getBudgetOutcomes().get(b);
+                text.append(String.format("  at %.0f%%: exceeded in %d of %d months, average overspend $%s%n",
+                        REPLAY_FACTORS[s] * 100, outcome.getMonthsExceeded(), outcome.getMonthsEvaluated(),
+                        df.format(outcome.getAverageOverspend())));
+            }
+        }
+
+        JTextArea textArea = new JTextArea(text.toString(), 15, 50);
+        textArea.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(textArea), "Replay Budgets", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Transaction data change callback
+     */
+    @Override
+    public void onTransactionDataChanged() {
+        if (tableModel.getRowCount() > 0) {
+            statusLabel.setText("New transaction data available. Click 'Generate Reports' to update.");
+        }
+    }
+}
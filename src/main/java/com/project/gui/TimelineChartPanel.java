@@ -0,0 +1,351 @@
+package com.project.gui;
+
+import com.project.service.DailyExpenses;
+import com.project.util.DateKeys;
+import com.project.util.Downsampler;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Path2D;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Expense timeline by day, week or month
+ * Zoom with the mouse wheel, pan by dragging, double-click to show everything.
+ * The visible range is downsampled to the plot width (largest-triangle-three-buckets), so
+ * painting costs the same for a month or for years of daily data; the sampled points are
+ * only recomputed when the data, granularity, zoom or width changes
+ */
+public class TimelineChartPanel extends JPanel {
+    private static final String[] GRANULARITIES = {"Day", "Week", "Month"};
+    private static final int DAY = 0;
+    private static final int WEEK = 1;
+    private static final int MONTH = 2;
+    private static final double ZOOM_STEP = 1.25;
+    private static final int TICK_COUNT = 6;
+    // Points are drawn as dots only when at least this many pixels apart
+    private static final int DOT_SPACING = 12;
+
+    private final Color expenseLineColor = new Color(231, 76, 60);
+    private final Color gridColor = new Color(230, 230, 230);
+    private final Font labelFont = new Font("Arial", Font.PLAIN, 9);
+    private final DecimalFormat amountFormat = new DecimalFormat("#,##0");
+    private final int padding = 30;
+
+    private final JComboBox<String> granularityBox = new JComboBox<>(GRANULARITIES);
+    private final PlotArea plotArea = new PlotArea();
+
+    private DailyExpenses dailyExpenses;
+    // Expense per bucket of the selected granularity, and the epoch day each bucket starts on
+    private double[] values = new double[0];
+    private long[] startDays = new long[0];
+    private int granularity = DAY;
+
+    // Visible range in bucket indices
+    private double viewStart;
+    private double viewEnd;
+
+    // Points of the visible range sampled to the plot width
+    private int[] sampled;
+    private double visibleMax;
+    private int sampledWidth = -1;
+
+    /**
+     * Constructor
+     */
+    public TimelineChartPanel() {
+        setLayout(new BorderLayout());
+        setPreferredSize(new Dimension(600, 220));
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
+                BorderFactory.createEmptyBorder(5, 0, 0, 0)
+        ));
+
+        JPanel header = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        header.setOpaque(false);
+        JLabel title = new JLabel("Expense Trend");
+        title.setFont(new Font("Arial", Font.BOLD, 12));
+        header.add(title);
+        granularityBox.addActionListener(e -> {
+            granularity = granularityBox.getSelectedIndex();
+            rebuildSeries();
+            resetView();
+        });
+        header.add(granularityBox);
+        add(header, BorderLayout.NORTH);
+        add(plotArea, BorderLayout.CENTER);
+    }
+
+    /**
+     * Show new expense data, keeping the zoom if the range still fits
+     */
+    public void setDailyExpenses(DailyExpenses dailyExpenses) {
+        this.dailyExpenses = dailyExpenses;
+        rebuildSeries();
+    }
+
+    /**
+     * Group the daily expenses into buckets of the selected granularity
+     */
+    private void rebuildSeries() {
+        int previousSize = values.length;
+        if (dailyExpenses == null || dailyExpenses.size() == 0) {
+            values = new double[0];
+            startDays = new long[0];
+        } else if (granularity == DAY) {
+            int size = dailyExpenses.size();
+            values = new double[size];
+            startDays = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = dailyExpenses.get(i);
+                startDays[i] = dailyExpenses.getFirstDay() + i;
+            }
+        } else {
+            long firstDay = dailyExpenses.getFirstDay();
+            long lastDay = firstDay + dailyExpenses.size() - 1;
+            long firstBucketDay = granularity == WEEK ? mondayOf(firstDay) : firstDay;
+            int size = bucketOf(lastDay, firstBucketDay) + 1;
+            values = new double[size];
+            startDays = new long[size];
+            for (int i = 0; i < dailyExpenses.size(); i++) {
+                values[bucketOf(firstDay + i, firstBucketDay)] += dailyExpenses.get(i);
+            }
+            for (int i = 0; i < size; i++) {
+                startDays[i] = granularity == WEEK
+                        ? firstBucketDay + 7L * i
+                        : DateKeys.epochDay(DateKeys.startOfYearMonth(DateKeys.yearMonthOfEpochDay(firstDay) + i));
+            }
+        }
+
+        // First data, or a range that no longer fits, shows everything; otherwise the zoom is kept
+        if (previousSize == 0 || viewEnd > values.length - 1) {
+            resetView();
+        }
+        invalidateSamples();
+    }
+
+    private int bucketOf(long day, long firstBucketDay) {
+        if (granularity == WEEK) {
+            return (int) ((day - firstBucketDay) / 7);
+        }
+        return DateKeys.yearMonthOfEpochDay(day) - DateKeys.yearMonthOfEpochDay(firstBucketDay);
+    }
+
+    private static long mondayOf(long epochDay) {
+        return epochDay - (LocalDate.ofEpochDay(epochDay).getDayOfWeek().getValue() - 1);
+    }
+
+    private void resetView() {
+        viewStart = 0;
+        viewEnd = Math.max(values.length - 1, 1);
+    }
+
+    private void invalidateSamples() {
+        sampled = null;
+        plotArea.repaint();
+    }
+
+    /**
+     * Sample the visible range to one point per pixel column
+     */
+    private void ensureSamples(int plotWidth) {
+        if (sampled != null && sampledWidth == plotWidth) {
+            return;
+        }
+        int from = Math.max(0, (int) Math.floor(viewStart));
+        int to = Math.min(values.length, (int) Math.ceil(viewEnd) + 1);
+        sampled = Downsampler.largestTriangleThreeBuckets(values, from, to, Math.max(plotWidth, 3));
+        sampledWidth = plotWidth;
+
+        visibleMax = 0;
+        for (int i = from; i < to; i++) {
+            visibleMax = Math.max(visibleMax, values[i]);
+        }
+        // Minimum scale plus extra space at the top
+        visibleMax = Math.max(visibleMax, 100.0) * 1.2;
+    }
+
+    private String formatBucket(int index) {
+        LocalDate start = LocalDate.ofEpochDay(startDays[index]);
+        return granularity == MONTH
+                ? start.format(DateTimeFormatter.ofPattern("yyyy-MM"))
+                : start.format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    /**
+     * Plotting surface; handles zooming, panning and tooltips
+     */
+    private class PlotArea extends JComponent {
+        private int dragX;
+
+        PlotArea() {
+            setToolTipText("");
+            MouseAdapter mouse = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    dragX = e.getX();
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (values.length < 2) {
+                        return;
+                    }
+                    double shift = (dragX - e.getX()) * bucketsPerPixel();
+                    dragX = e.getX();
+                    shift = Math.max(-viewStart, Math.min(shift, values.length - 1 - viewEnd));
+                    if (shift != 0) {
+                        viewStart += shift;
+                        viewEnd += shift;
+                        invalidateSamples();
+                    }
+                }
+
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        resetView();
+                        invalidateSamples();
+                    }
+                }
+
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    zoom(e.getX(), Math.pow(ZOOM_STEP, e.getPreciseWheelRotation()));
+                }
+            };
+            addMouseListener(mouse);
+            addMouseMotionListener(mouse);
+            addMouseWheelListener(mouse);
+        }
+
+        /**
+         * Scale the visible range around the bucket under the cursor
+         */
+        private void zoom(int x, double factor) {
+            if (values.length < 3) {
+                return;
+            }
+            double anchor = indexAt(x);
+            double span = Math.min(Math.max((viewEnd - viewStart) * factor, 2), values.length - 1);
+            double start = anchor - (anchor - viewStart) * span / (viewEnd - viewStart);
+            start = Math.max(0, Math.min(start, values.length - 1 - span));
+            viewStart = start;
+            viewEnd = start + span;
+            invalidateSamples();
+        }
+
+        private int plotWidth() {
+            return Math.max(getWidth() - 2 * padding, 1);
+        }
+
+        private double bucketsPerPixel() {
+            return (viewEnd - viewStart) / plotWidth();
+        }
+
+        private double indexAt(int x) {
+            return viewStart + (x - padding) * bucketsPerPixel();
+        }
+
+        private double xOf(int index) {
+            return padding + (index - viewStart) / bucketsPerPixel();
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            if (values.length == 0) {
+                return null;
+            }
+            int index = (int) Math.round(indexAt(e.getX()));
+            if (index < 0 || index >= values.length) {
+                return null;
+            }
+            return formatBucket(index) + ": ¥" + String.format("%.2f", values[index]);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setFont(labelFont);
+            FontMetrics metrics = g2.getFontMetrics();
+
+            int width = getWidth();
+            int height = getHeight();
+            if (values.length == 0) {
+                String message = "No data available";
+                g2.setColor(Color.BLACK);
+                g2.drawString(message, (width - metrics.stringWidth(message)) / 2, height / 2);
+                return;
+            }
+
+            int plotWidth = plotWidth();
+            int bottom = height - padding;
+            int chartHeight = Math.max(bottom - 10, 1);
+            ensureSamples(plotWidth);
+
+            // Horizontal grid lines and Y-axis labels
+            for (int i = 0; i <= 4; i++) {
+                int y = bottom - i * chartHeight / 4;
+                g2.setColor(gridColor);
+                g2.drawLine(padding + 1, y, width - padding, y);
+                g2.setColor(Color.BLACK);
+                String yLabel = amountFormat.format(visibleMax * i / 4);
+                g2.drawString(yLabel, padding - metrics.stringWidth(yLabel) - 5, y + 3);
+            }
+
+            // Axes
+            g2.setColor(Color.BLACK);
+            g2.drawLine(padding, bottom, width - padding, bottom);
+            g2.drawLine(padding, bottom, padding, bottom - chartHeight);
+
+            // A few evenly spaced date labels instead of one per bucket
+            int lastLabelEnd = Integer.MIN_VALUE;
+            for (int i = 0; i < TICK_COUNT; i++) {
+                int index = (int) Math.round(viewStart + (viewEnd - viewStart) * i / (TICK_COUNT - 1));
+                if (index >= values.length) {
+                    continue;
+                }
+                String label = formatBucket(index);
+                int x = (int) xOf(index) - metrics.stringWidth(label) / 2;
+                if (x > lastLabelEnd) {
+                    g2.drawString(label, x, bottom + 15);
+                    lastLabelEnd = x + metrics.stringWidth(label) + 5;
+                }
+            }
+
+            // Expense line through the sampled points, clipped to the plot area
+            Shape clip = g2.getClip();
+            g2.clipRect(padding, 0, plotWidth + 1, bottom + 1);
+            Path2D.Double line = new Path2D.Double(Path2D.WIND_NON_ZERO, sampled.length);
+            for (int i = 0; i < sampled.length; i++) {
+                double x = xOf(sampled[i]);
+                double y = bottom - values[sampled[i]] / visibleMax * chartHeight;
+                if (i == 0) {
+                    line.moveTo(x, y);
+                } else {
+                    line.lineTo(x, y);
+                }
+            }
+            g2.setColor(expenseLineColor);
+            g2.setStroke(new BasicStroke(2f));
+            g2.draw(line);
+
+            // Data points only when they are far enough apart to be told apart
+            if (1 / bucketsPerPixel() >= DOT_SPACING) {
+                for (int index : sampled) {
+                    int x = (int) xOf(index);
+                    int y = (int) (bottom - values[index] / visibleMax * chartHeight);
+                    g2.fillOval(x - 3, y - 3, 6, 6);
+                }
+            }
+            g2.setClip(clip);
+        }
+    }
+}
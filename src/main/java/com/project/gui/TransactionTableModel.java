@@ -0,0 +1,325 @@
+package com.project.gui;
+
+import com.project.model.Transcation;
+import com.project.service.TransactionObserver;
+import com.project.service.TranscationService;
+
+import javax.swing.table.AbstractTableModel;
+import java.text.SimpleDateFormat;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Table model reading rows straight from the transaction service's date-ordered ledger
+ * No row data is copied; cells are formatted only when the table paints them.
+ * Ledger position callbacks are turned into row insert/update/delete events, so the table
+ * keeps its scroll position and selection; other changes fall back to a full refresh.
+ * Other sort orders and filters are answered by the service's indexes and shown as a
+ * permutation of the stored transactions; rows are never compared in the model
+ */
+public class TransactionTableModel extends AbstractTableModel implements TransactionObserver {
+    public static final int DATE_COLUMN = 0;
+    public static final int AMOUNT_COLUMN = 1;
+    public static final int TYPE_COLUMN = 2;
+    public static final int CATEGORY_COLUMN = 3;
+
+    private final String[] columnNames = {"Date", "Amount", "Type", "Category", "Description"};
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+
+    private TranscationService transactionService;
+    // Rows the table has been told about; trails the ledger while a change is being reported
+    private int rowCount;
+    // Whether the change being reported arrived as ledger positions
+    private boolean positionsReported;
+
+    // Sort and filter; the default (date, most recent first, no filter) reads the ledger directly
+    private int sortColumn = DATE_COLUMN;
+    private boolean ascending;
+    private String categoryFilter;
+    private Boolean incomeFilter;
+    // Description search query, null for none
+    private String searchQuery;
+    // Matches of the search query, for filtering views not in date order
+    private Set<Transcation> searchMatches;
+    // Rows of a sorted or filtered view, null for the default view
+    private Transcation[] view;
+
+    /**
+     * Constructor
+     */
+    public TransactionTableModel(TranscationService transactionService) {
+        this.transactionService = transactionService;
+        this.rowCount = transactionService.getTransactionCount();
+        transactionService.addObserver(this);
+    }
+
+    /**
+     * Get the transaction shown in a row
+     */
+    public Transcation getTransactionAt(int row) {
+        if (view != null) {
+            return view[row];
+        }
+        // Default view: most recent first
+        return transactionService.getTransactionAt(transactionService.getTransactionCount() - 1 - row);
+    }
+
+    /**
+     * Sort by a column; sorting by the current column again reverses the order
+     * @return False if the column cannot be sorted
+     */
+    public boolean sortBy(int column) {
+        if (column > CATEGORY_COLUMN) {
+            return false;
+        }
+        if (column == sortColumn) {
+            ascending = !ascending;
+        } else {
+            sortColumn = column;
+            // Dates and amounts start with the largest, names with A
+            ascending = column == TYPE_COLUMN || column == CATEGORY_COLUMN;
+        }
+        refresh();
+        return true;
+    }
+
+    /**
+     * Show only matching transactions
+     * @param category Category to show, or null for all
+     * @param income True for income only, false for expenses only, null for both
+     */
+    public void setFilter(String category, Boolean income) {
+        this.categoryFilter = category;
+        this.incomeFilter = income;
+        refresh();
+    }
+
+    /**
+     * Show only transactions whose description matches a search query
+     * @param query Words to search for (prefixes match), or null/blank for no search
+     */
+    public void setSearch(String query) {
+        this.searchQuery = query == null || query.trim().isEmpty() ? null : query;
+        refresh();
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Tell the table the ledger has changed
+     */
+    public void refresh() {
+        rowCount = transactionService.getTransactionCount();
+        view = isDefaultView() ? null : buildView();
+        fireTableDataChanged();
+    }
+
+    @Override
+    public void onTransactionDataChanged() {
+        if (!positionsReported) {
+            refresh();
+        }
+        positionsReported = false;
+    }
+
+    @Override
+    public void onLedgerRowsInserted(int fromIndex, int toIndex) {
+        positionsReported = true;
+        rowCount += toIndex - fromIndex + 1;
+        if (view != null) {
+            // Ledger positions do not map to rows of a sorted or filtered view
+            refresh();
+            return;
+        }
+        // Rows are shown most recent first
+        fireTableRowsInserted(rowCount - 1 - toIndex, rowCount - 1 - fromIndex);
+    }
+
+    @Override
+    public void onLedgerRowsDeleted(int fromIndex, int toIndex) {
+        positionsReported = true;
+        int firstRow = rowCount - 1 - toIndex;
+        int lastRow = rowCount - 1 - fromIndex;
+        rowCount -= toIndex - fromIndex + 1;
+        if (view != null) {
+            refresh();
+            return;
+        }
+        fireTableRowsDeleted(firstRow, lastRow);
+    }
+
+    @Override
+    public void onLedgerRowsUpdated(int fromIndex, int toIndex) {
+        positionsReported = true;
+        if (view != null) {
+            refresh();
+            return;
+        }
+        fireTableRowsUpdated(rowCount - 1 - toIndex, rowCount - 1 - fromIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return view != null ? view.length : rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Transcation transaction = getTransactionAt(row);
+        switch (column) {
+            case 0:
+                return dateFormat.format(transaction.getDate());
+            case 1:
+                return transaction.getAmount();
+            case 2:
+                return transaction.isIncome() ? "Income" : "Expense";
+            case 3:
+                return transaction.getCategory();
+            default:
+                return transaction.getDescription();
+        }
+    }
+
+    private boolean isDefaultView() {
+        return sortColumn == DATE_COLUMN && !ascending && categoryFilter == null && incomeFilter == null && searchQuery == null;
+    }
+
+    /**
+     * Build the rows of a sorted or filtered view from the service's indexes
+     */
+    private Transcation[] buildView() {
+        // Ascending source order of the sort column
+        List<Transcation> source;
+        searchMatches = null;
+        if (searchQuery != null) {
+            List<Transcation> matches = transactionService.searchByDescription(searchQuery);
+            if (sortColumn == DATE_COLUMN || sortColumn == TYPE_COLUMN) {
+                // Search results are already in date order
+                return buildRows(matches);
+            }
+            searchMatches = Collections.newSetFromMap(new IdentityHashMap<>());
+            searchMatches.addAll(matches);
+        }
+        switch (sortColumn) {
+            case AMOUNT_COLUMN:
+                source = transactionService.getTransactionsByAmount();
+                break;
+            case CATEGORY_COLUMN:
+                if (categoryFilter != null) {
+                    source = transactionService.getTransactionsByCategory(categoryFilter);
+                } else {
+                    // Category postings concatenated in name order, each already in date order
+                    source = new ArrayList<>(rowCount);
+                    for (String category : transactionService.getCategories()) {
+                        source.addAll(transactionService.getTransactionsByCategory(category));
+                    }
+                }
+                break;
+            default:
+                // Date order, narrowed to the category postings when filtering by category
+                if (categoryFilter != null) {
+                    source = transactionService.getTransactionsByCategory(categoryFilter);
+                } else if (sortColumn == DATE_COLUMN) {
+                    // The ledger read by position in the shown direction, without copying it
+                    return buildRows(ledger(ascending), true);
+                } else {
+                    source = ledger(true);
+                }
+                break;
+        }
+        return buildRows(source);
+    }
+
+    /**
+     * The ledger as a list read by position, oldest first or most recent first
+     */
+    private List<Transcation> ledger(boolean oldestFirst) {
+        int size = transactionService.getTransactionCount();
+        return new AbstractList<Transcation>() {
+            @Override
+            public Transcation get(int index) {
+                return transactionService.getTransactionAt(oldestFirst ? index : size - 1 - index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Filter a source in ascending order into the rows of the view
+     */
+    private Transcation[] buildRows(List<Transcation> source) {
+        return buildRows(source, false);
+    }
+
+    /**
+     * Filter a source into the rows of the view
+     * @param inViewOrder True if the source is already in the shown order, false if it is ascending
+     */
+    private Transcation[] buildRows(List<Transcation> source, boolean inViewOrder) {
+        int size = 0;
+        Transcation[] rows = new Transcation[source.size()];
+        if (sortColumn == TYPE_COLUMN) {
+            // Expense before income, date order within each: two filtering passes instead of a sort
+            size = collect(source, false, rows, size);
+            size = collect(source, true, rows, size);
+        } else {
+            size = collect(source, null, rows, size);
+        }
+
+        if (!ascending && !inViewOrder) {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                Transcation swap = rows[i];
+                rows[i] = rows[j];
+                rows[j] = swap;
+            }
+        }
+        return size == rows.length ? rows : Arrays.copyOf(rows, size);
+    }
+
+    /**
+     * Append the rows of source passing the filters (and of the given type, if not null)
+     */
+    private int collect(List<Transcation> source, Boolean type, Transcation[] rows, int size) {
+        for (Transcation transaction : source) {
+            if (type != null && transaction.isIncome() != type) {
+                continue;
+            }
+            if (incomeFilter != null && transaction.isIncome() != incomeFilter) {
+                continue;
+            }
+            if (categoryFilter != null && !categoryFilter.equals(transaction.getCategory())) {
+                continue;
+            }
+            if (searchMatches != null && !searchMatches.contains(transaction)) {
+                continue;
+            }
+            rows[size++] = transaction;
+        }
+        return size;
+    }
+}
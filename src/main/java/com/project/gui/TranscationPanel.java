@@ -1,42 +1,57 @@
 package com.project.gui;
 
 import com.project.model.Transcation;
+import com.project.service.AggregationPipeline;
+import com.project.service.DailyExpenses;
+import com.project.service.FolderWatchService;
 import com.project.service.TranscationService;
 import com.project.service.TransactionObserver;
 import com.project.util.CSVImporter;
+import com.project.util.ImportSummary;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.geom.Line2D;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.File;
-import java.text.DecimalFormat;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Transaction panel
  * Displays transaction table and expense chart
  */
-public class TranscationPanel extends JPanel implements TransactionObserver {
+public class TranscationPanel extends JPanel implements TransactionObserver, CardPanel {
     private TranscationService transactionService;
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
+    private TransactionTableModel tableModel;
     private JButton addButton;
     private JButton importCsvButton;
-    private SimpleExpenseChartPanel chartPanel;
-
-    private final String[] columnNames = {"Date", "Amount", "Type", "Category", "Description"};
+    private JButton watchFolderButton;
+    private JLabel watchStatusLabel;
+    private JComboBox<String> categoryFilterBox;
+    private JComboBox<String> typeFilterBox;
+    private JTextField searchField;
+    private FolderWatchService folderWatchService;
+    private TimelineChartPanel chartPanel;
+    private AggregationPipeline.Channel<DailyExpenses> chartChannel;
+    private final DeferredRefresh chartRefresh = new DeferredRefresh(this::updateChartData);
 
     /**
      * Constructor
      */
-    public TranscationPanel(TranscationService transactionService) {
+    public TranscationPanel(TranscationService transactionService, AggregationPipeline pipeline) {
         this.transactionService = transactionService;
         setLayout(new BorderLayout(0, 10));
         setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -58,20 +73,24 @@ public class TranscationPanel extends JPanel implements TransactionObserver {
         add(centerPanel, BorderLayout.CENTER);
 
         // Create bottom chart panel
-        chartPanel = new SimpleExpenseChartPanel();
+        chartPanel = new TimelineChartPanel();
         add(chartPanel, BorderLayout.SOUTH);
 
-        // Load initial data
-        loadTransactionData();
+        // Daily expenses are aggregated in the background and handed to the chart on the event thread
+        chartChannel = pipeline.channel(transactionService::getDailyExpenses, chartPanel::setDailyExpenses);
 
-        // No need to explicitly update chart data as it's done in observer method
+        // Table rows are read from the service on demand; the chart is computed when the panel is first shown
     }
 
     @Override
     public void onTransactionDataChanged() {
-        // Update UI when transaction data changes
-        loadTransactionData();
-        updateChartData();
+        // The table model applies the row changes itself; the chart is deferred while hidden
+        chartRefresh.invalidate();
+    }
+
+    @Override
+    public void setCardVisible(boolean visible) {
+        chartRefresh.setVisible(visible);
     }
 
     /**
@@ -99,9 +118,66 @@ public class TranscationPanel extends JPanel implements TransactionObserver {
             }
         });
 
+        watchFolderButton = new JButton("Watch Folder");
+        watchFolderButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggleFolderWatch();
+            }
+        });
+
+        watchStatusLabel = new JLabel();
+
+        // Filter controls, answered by the service's indexes
+        categoryFilterBox = new JComboBox<>(new String[]{"All Categories"});
+        categoryFilterBox.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                refreshCategoryChoices();
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+        categoryFilterBox.addActionListener(e -> applyFilter());
+
+        typeFilterBox = new JComboBox<>(new String[]{"All Types", "Income", "Expense"});
+        typeFilterBox.addActionListener(e -> applyFilter());
+
+        // Description search, updated as the user types
+        searchField = new JTextField(12);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                tableModel.setSearch(searchField.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                tableModel.setSearch(searchField.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                tableModel.setSearch(searchField.getText());
+            }
+        });
+
         // Add buttons to panel
         topPanel.add(addButton);
         topPanel.add(importCsvButton);
+        topPanel.add(watchFolderButton);
+        topPanel.add(new JLabel("Filter:"));
+        topPanel.add(categoryFilterBox);
+        topPanel.add(typeFilterBox);
+        topPanel.add(new JLabel("Search:"));
+        topPanel.add(searchField);
+        topPanel.add(watchStatusLabel);
 
         add(topPanel, BorderLayout.NORTH);
     }
@@ -110,53 +186,64 @@ public class TranscationPanel extends JPanel implements TransactionObserver {
      * Create transaction table
      */
     private void createTransactionTable() {
-        // Create table model
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table cells non-editable
-            }
-        };
+        // Create table model, rows are read from the service on demand
+        tableModel = new TransactionTableModel(transactionService);
 
         // Create JTable with model
         transactionTable = new JTable(tableModel);
         transactionTable.setRowHeight(25);
         transactionTable.getTableHeader().setReorderingAllowed(false);
         transactionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        // Click a column header to sort by it, click again to reverse
+        transactionTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = transactionTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    tableModel.sortBy(transactionTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
     }
 
     /**
-     * Load transaction data to table
+     * Fill the category filter with the categories that have transactions
      */
-    private void loadTransactionData() {
-        // Clear existing data
-        tableModel.setRowCount(0);
-
-        // Get transactions from service
-        List<Transcation> transactions = transactionService.getAllTransactions();
-
-        // Add transactions to table
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-
-        for (Transcation transaction : transactions) {
-            Object[] rowData = {
-                    dateFormat.format(transaction.getDate()),
-                    transaction.getAmount(),
-                    transaction.isIncome() ? "Income" : "Expense",
-                    transaction.getCategory(),
-                    transaction.getDescription()
-            };
-            tableModel.addRow(rowData);
+    private void refreshCategoryChoices() {
+        Object selected = categoryFilterBox.getSelectedItem();
+        ActionListener[] listeners = categoryFilterBox.getActionListeners();
+        for (ActionListener listener : listeners) {
+            categoryFilterBox.removeActionListener(listener);
+        }
+
+        categoryFilterBox.removeAllItems();
+        categoryFilterBox.addItem("All Categories");
+        for (String category : transactionService.getCategories()) {
+            categoryFilterBox.addItem(category);
+        }
+        categoryFilterBox.setSelectedItem(selected);
+
+        for (ActionListener listener : listeners) {
+            categoryFilterBox.addActionListener(listener);
         }
     }
 
+    /**
+     * Apply the selected filters to the table
+     */
+    private void applyFilter() {
+        String category = categoryFilterBox.getSelectedIndex() > 0 ? (String) categoryFilterBox.getSelectedItem() : null;
+        int type = typeFilterBox.getSelectedIndex();
+        tableModel.setFilter(category, type == 0 ? null : type == 1);
+    }
+
     /**
      * Update chart data
      */
     private void updateChartData() {
-        // Get expense data by month and update chart
-        Map<String, Double> monthlyExpenses = transactionService.getMonthlyExpenses();
-        chartPanel.updateData(monthlyExpenses);
+        // Get expenses per day off the event thread; the timeline groups them into days, weeks or months
+        chartChannel.request();
     }
 
     /**
@@ -380,183 +467,137 @@ public class TranscationPanel extends JPanel implements TransactionObserver {
      */
     private void importFromCSV() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Select CSV File");
-        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        fileChooser.setDialogTitle("Select CSV Files");
+        fileChooser.setMultiSelectionEnabled(true);
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv, *.csv.gz, *.zip)", "csv", "gz", "zip"));
 
         int result = fileChooser.showOpenDialog(this);
 
         if (result == JFileChooser.APPROVE_OPTION) {
-            File selectedFile = fileChooser.getSelectedFile();
-            try {
-                CSVImporter importer = new CSVImporter();
-                List<Transcation> importedTransactions = importer.importTransactions(selectedFile.getAbsolutePath());
-
-                // Save imported transactions
-                for (Transcation transaction : importedTransactions) {
-                    transactionService.addTransaction(transaction);
-                }
+            List<String> filePaths = new ArrayList<>();
+            for (File selectedFile : fileChooser.getSelectedFiles()) {
+                filePaths.add(selectedFile.getAbsolutePath());
+            }
 
-                // Transaction service will notify observers of the change
-                // which will trigger UI updates
+            importCsvButton.setEnabled(false);
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
 
-                JOptionPane.showMessageDialog(this,
-                        "Successfully imported " + importedTransactions.size() + " transactions.",
-                        "Import Successful",
-                        JOptionPane.INFORMATION_MESSAGE);
+            // Parse the files concurrently off the event thread, then commit them as one batch
+            new SwingWorker<ImportSummary, Void>() {
+                @Override
+                protected ImportSummary doInBackground() throws Exception {
+                    // Bad rows go to a reject file next to each source instead of aborting the import
+                    return new CSVImporter().importFiles(filePaths, null, ".rejects.csv");
+                }
 
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this,
-                        "Error importing CSV: " + e.getMessage(),
-                        "Import Error",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+                @Override
+                protected void done() {
+                    importCsvButton.setEnabled(true);
+                    setCursor(Cursor.getDefaultCursor());
+                    try {
+                        commitImport(get());
+                    } catch (Exception e) {
+                        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                        JOptionPane.showMessageDialog(TranscationPanel.this,
+                                "Error importing CSV: " + cause.getMessage(),
+                                "Import Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
         }
     }
 
     /**
-     * Simple expense chart panel inner class
+     * Start or stop watching a folder for new and appended CSV files
      */
-    private class SimpleExpenseChartPanel extends JPanel {
-        private Map<String, Double> expenseData = new TreeMap<>(); // TreeMap guarantees sorted by key
-        private double maxValue = 1000.0;
-        private final Color expenseLineColor = new Color(231, 76, 60);
-        private final Color gridColor = new Color(230, 230, 230);
-        private final int padding = 30;
-
-        public SimpleExpenseChartPanel() {
-            setPreferredSize(new Dimension(600, 200));
-            setBackground(Color.WHITE);
-            setBorder(BorderFactory.createCompoundBorder(
-                    BorderFactory.createMatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY),
-                    BorderFactory.createEmptyBorder(10, 0, 0, 0)
-            ));
+    private void toggleFolderWatch() {
+        if (folderWatchService != null) {
+            folderWatchService.stop();
+            folderWatchService = null;
+            watchFolderButton.setText("Watch Folder");
+            watchStatusLabel.setText("");
+            return;
         }
 
-        public void updateData(Map<String, Double> expenses) {
-            // Use TreeMap to ensure sorted by year-month
-            this.expenseData = new TreeMap<>(expenses);
-
-            // Calculate max value for vertical scaling
-            maxValue = 100.0; // Minimum default value
-            for (Double value : expenses.values()) {
-                maxValue = Math.max(maxValue, value);
-            }
+        JFileChooser folderChooser = new JFileChooser();
+        folderChooser.setDialogTitle("Select Folder to Watch");
+        folderChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
 
-            // Ensure extra space at top
-            maxValue *= 1.2;
+        if (folderChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-            repaint();
+        File folder = folderChooser.getSelectedFile();
+        // Rows are committed on the event thread so observers can update the UI directly
+        FolderWatchService watcher = new FolderWatchService(transactionService, folder.toPath(), SwingUtilities::invokeLater);
+        watcher.setImportListener(summary -> watchStatusLabel.setText(String.format(
+                "Watching %s - last batch: %d imported, %d duplicates, %d rejected",
+                folder.getName(),
+                summary.getAcceptedCount() - summary.getDuplicateCount(),
+                summary.getDuplicateCount(),
+                summary.getRejectedCount())));
+
+        try {
+            watcher.start();
+            folderWatchService = watcher;
+            watchFolderButton.setText("Stop Watching");
+            watchStatusLabel.setText("Watching " + folder.getName());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Cannot watch folder: " + e.getMessage(),
+                    "Watch Folder Error",
+                    JOptionPane.ERROR_MESSAGE);
         }
+    }
 
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            int width = getWidth();
-            int height = getHeight();
-
-            // Draw title
-            g2.setFont(new Font("Arial", Font.BOLD, 12));
-            String title = "Monthly Expense Trend";
-            FontMetrics metrics = g2.getFontMetrics();
-            int titleWidth = metrics.stringWidth(title);
-            g2.drawString(title, (width - titleWidth) / 2, 15);
-
-            // If no data, show message
-            if (expenseData.isEmpty()) {
-                String message = "No data available";
-                g2.drawString(message, (width - metrics.stringWidth(message)) / 2, height / 2);
+    /**
+     * Save the accepted rows of an import and report accepted, rejected and duplicate counts
+     */
+    private void commitImport(ImportSummary summary) {
+        List<Transcation> importedTransactions = summary.getTransactions();
+
+        // Flag rows that are already in the ledger (e.g. overlapping monthly exports)
+        boolean skipDuplicates = true;
+        int duplicateCount = transactionService.countDuplicates(importedTransactions);
+        if (duplicateCount > 0) {
+            int choice = JOptionPane.showConfirmDialog(this,
+                    duplicateCount + " of " + importedTransactions.size() +
+                            " transactions already exist. Skip duplicates?",
+                    "Duplicates Found",
+                    JOptionPane.YES_NO_CANCEL_OPTION);
+            if (choice == JOptionPane.CANCEL_OPTION || choice == JOptionPane.CLOSED_OPTION) {
                 return;
             }
+            skipDuplicates = (choice == JOptionPane.YES_OPTION);
+        }
 
-            // Calculate drawing area
-            int chartWidth = width - 2 * padding;
-            int chartHeight = height - 2 * padding - 20; // Subtract title space
-            int startY = 20 + padding; // Start below title
-
-            // Draw coordinate axes
-            g2.setColor(Color.BLACK);
-            g2.drawLine(padding, height - padding, width - padding, height - padding); // X-axis
-            g2.drawLine(padding, height - padding, padding, startY); // Y-axis
-
-            // Draw horizontal grid lines and Y-axis labels
-            g2.setFont(new Font("Arial", Font.PLAIN, 9));
-            DecimalFormat df = new DecimalFormat("#,##0");
-
-            for (int i = 0; i <= 4; i++) {
-                int y = height - padding - (i * chartHeight / 4);
+        // Save imported transactions in one batch
+        int duplicates = transactionService.importTransactions(importedTransactions, skipDuplicates);
+        summary.setDuplicateCount(duplicates);
+        int imported = skipDuplicates ? importedTransactions.size() - duplicates : importedTransactions.size();
 
-                // Grid lines
-                g2.setColor(gridColor);
-                g2.drawLine(padding + 1, y, width - padding, y);
+        // Transaction service will notify observers of the change
+        // which will trigger UI updates
 
-                // Y-axis labels
-                g2.setColor(Color.BLACK);
-                String yLabel = df.format((maxValue * i) / 4);
-                g2.drawString(yLabel, padding - metrics.stringWidth(yLabel) - 5, y + 3);
+        StringBuilder message = new StringBuilder("Successfully imported " + imported + " transactions.");
+        if (skipDuplicates && duplicates > 0) {
+            message.append("\nSkipped ").append(duplicates).append(" duplicates.");
+        }
+        if (summary.getRejectedCount() > 0) {
+            message.append("\nRejected ").append(summary.getRejectedCount()).append(" invalid rows");
+            if (!summary.getRejectFilePaths().isEmpty()) {
+                message.append(", see ").append(String.join(", ", summary.getRejectFilePaths()));
             }
-
-            // Get all months
-            List<String> months = new ArrayList<>(expenseData.keySet());
-
-            // If enough data points to draw the line
-            if (months.size() > 1) {
-                // Calculate X-axis scale
-                double xScale = (double) chartWidth / (months.size() - 1);
-
-                // Draw X-axis labels
-                for (int i = 0; i < months.size(); i++) {
-                    int x = padding + (int) (i * xScale);
-
-                    // X-axis label
-                    String month = months.get(i);
-
-                    // Rotate labels to avoid overlap
-                    g2.setColor(Color.BLACK);
-                    g2.translate(x, height - padding + 5);
-                    g2.rotate(Math.PI / 6);
-                    g2.drawString(month, 0, 0);
-                    g2.rotate(-Math.PI / 6);
-                    g2.translate(-(x), -(height - padding + 5));
-                }
-
-                // Draw expense line
-                g2.setColor(expenseLineColor);
-                g2.setStroke(new BasicStroke(2f));
-
-                int[] xPoints = new int[months.size()];
-                int[] yPoints = new int[months.size()];
-
-                for (int i = 0; i < months.size(); i++) {
-                    String month = months.get(i);
-                    double value = expenseData.get(month);
-
-                    xPoints[i] = padding + (int) (i * xScale);
-                    yPoints[i] = (int) (height - padding - ((value / maxValue) * chartHeight));
-                }
-
-                // Draw line segments
-                for (int i = 0; i < xPoints.length - 1; i++) {
-                    g2.draw(new Line2D.Double(xPoints[i], yPoints[i], xPoints[i + 1], yPoints[i + 1]));
-                }
-
-                // Draw data points and show amount labels
-                for (int i = 0; i < xPoints.length; i++) {
-                    // Draw data point
-                    g2.fillOval(xPoints[i] - 3, yPoints[i] - 3, 6, 6);
-
-                    // Add amount label above the point
-                    String amountLabel = String.format("¥%.2f", expenseData.get(months.get(i)));
-                    int labelWidth = metrics.stringWidth(amountLabel);
-
-                    // Position the label above the point
-                    g2.setFont(new Font("Arial", Font.BOLD, 10));
-                    g2.setColor(expenseLineColor);
-                    g2.drawString(amountLabel, xPoints[i] - labelWidth / 2, yPoints[i] - 10);
-                }
+            message.append(".");
+            for (String diagnostic : summary.getDiagnostics().subList(0, Math.min(5, summary.getDiagnostics().size()))) {
+                message.append("\n  ").append(diagnostic);
             }
         }
+
+        JOptionPane.showMessageDialog(this,
+                message.toString(),
+                "Import Successful",
+                summary.getRejectedCount() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
     }
-}
\ No newline at end of file
+}
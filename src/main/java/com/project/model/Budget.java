@@ -1,17 +1,23 @@
 package com.project.model;
 
+import java.time.LocalDate;
 import java.util.Date;
 
 /**
  * 预算数据模型类
  */
 public class Budget {
+    // 总预算使用的类别名，对所有类别的支出生效
+    public static final String TOTAL_BUDGET = "Total Budget";
+
     private int id;
     private String category;
     private double amount;
     private Date startDate;
     private Date endDate;
     private String description;
+    // 周期类型，NONE 表示只在 startDate 到 endDate 之间生效一次
+    private Recurrence recurrence = Recurrence.NONE;
 
     /**
      * 默认构造函数
@@ -74,6 +80,28 @@ public class Budget {
         this.endDate = endDate;
     }
 
+    /**
+     * 是否为总预算（统计所有类别的支出）
+     */
+    public boolean isTotalBudget() {
+        return TOTAL_BUDGET.equals(category);
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence != null ? recurrence : Recurrence.NONE;
+    }
+
+    /**
+     * 是否为周期性预算
+     */
+    public boolean isRecurring() {
+        return recurrence != Recurrence.NONE;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -112,6 +140,52 @@ public class Budget {
     public String toString() {
         return "Budget [id=" + id + ", category=" + category + ", amount=" + amount +
                 ", startDate=" + startDate + ", endDate=" + endDate +
-                ", description=" + description + "]";
+                ", recurrence=" + recurrence + ", description=" + description + "]";
+    }
+
+    /**
+     * 预算周期类型
+     * 周期性预算从 startDate 开始按周期重复，直到 endDate（为空则不结束）
+     */
+    public enum Recurrence {
+        NONE, WEEKLY, MONTHLY, QUARTERLY, YEARLY;
+
+        /**
+         * 计算从起始日开始第 n 个周期的开始日期
+         * 按月计算时总是从起始日推算，所以 1 月 31 日开始的预算在 2 月按月末结束后仍回到 3 月 31 日
+         */
+        public LocalDate periodStart(LocalDate anchor, long n) {
+            switch (this) {
+                case WEEKLY:
+                    return anchor.plusWeeks(n);
+                case MONTHLY:
+                    return anchor.plusMonths(n);
+                case QUARTERLY:
+                    return anchor.plusMonths(3 * n);
+                case YEARLY:
+                    return anchor.plusYears(n);
+                default:
+                    return anchor;
+            }
+        }
+
+        /**
+         * 计算某天所在的日历周期的开始日期：周一、月初、季度初或年初
+         * 没有起始日的周期预算以此为锚点，这样周期总是对齐日历
+         */
+        public LocalDate calendarPeriodStart(LocalDate day) {
+            switch (this) {
+                case WEEKLY:
+                    return day.minusDays(day.getDayOfWeek().getValue() - 1);
+                case MONTHLY:
+                    return day.withDayOfMonth(1);
+                case QUARTERLY:
+                    return LocalDate.of(day.getYear(), (day.getMonthValue() - 1) / 3 * 3 + 1, 1);
+                case YEARLY:
+                    return day.withDayOfYear(1);
+                default:
+                    return day;
+            }
+        }
     }
 }
\ No newline at end of file
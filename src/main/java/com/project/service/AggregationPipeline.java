@@ -0,0 +1,82 @@
+package com.project.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Computes view models on a background thread and publishes them on a delivery executor
+ * Each view has a channel; requests arriving while its computation is queued are coalesced,
+ * so a burst of transaction changes costs one recomputation per view
+ */
+public class AggregationPipeline {
+    private final ExecutorService worker;
+    private final Executor deliveryExecutor;
+
+    /**
+     * Constructor
+     * @param deliveryExecutor Executor view models are published on (e.g. the Swing event thread)
+     */
+    public AggregationPipeline(Executor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aggregation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a channel for one view
+     * @param compute Builds the view model; runs on the background thread and may only use thread-safe reads
+     * @param publish Shows the view model; runs on the delivery executor
+     */
+    public <T> Channel<T> channel(Supplier<T> compute, Consumer<T> publish) {
+        return new Channel<>(compute, publish);
+    }
+
+    /**
+     * Stop the background thread
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Recomputes one view model on request
+     */
+    public class Channel<T> {
+        private final Supplier<T> compute;
+        private final Consumer<T> publish;
+        private final AtomicBoolean pending = new AtomicBoolean();
+
+        private Channel(Supplier<T> compute, Consumer<T> publish) {
+            this.compute = compute;
+            this.publish = publish;
+        }
+
+        /**
+         * Schedule a recomputation unless one is already waiting to start
+         */
+        public void request() {
+            if (!pending.compareAndSet(false, true)) {
+                return;
+            }
+            worker.execute(() -> {
+                // Cleared before computing, so changes made during the computation schedule another run
+                pending.set(false);
+                T model;
+                try {
+                    model = compute.get();
+                } catch (RuntimeException e) {
+                    System.err.println("Aggregation failed: " + e.getMessage());
+                    return;
+                }
+                deliveryExecutor.execute(() -> publish.accept(model));
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.service;
+
+import com.project.model.Budget;
+
+/**
+ * Event raised when a budget's usage crosses an alert threshold
+ */
+public class BudgetAlert {
+    private final Budget budget;
+    private final double threshold;
+    private final double spent;
+
+    /**
+     * Constructor
+     * @param budget The budget whose threshold was crossed
+     * @param threshold The threshold crossed, as a percentage of the budget amount
+     * @param spent Spending at the time of the crossing
+     */
+    public BudgetAlert(Budget budget, double threshold, double spent) {
+        this.budget = budget;
+        this.threshold = threshold;
+        this.spent = spent;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public double getSpent() {
+        return spent;
+    }
+
+    /**
+     * Percentage of the budget used at the time of the crossing
+     */
+    public double getUsagePercentage() {
+        return budget.getAmount() > 0 ? (spent / budget.getAmount()) * 100 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s budget reached %.0f%% (%.1f%% used)", budget.getCategory(), threshold, getUsagePercentage());
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.service;
+
+import com.project.model.Budget;
+
+import java.util.*;
+
+/**
+ * Evaluates all budgets of a period from the transaction service's time rollups
+ */
+public class BudgetEvaluationEngine {
+    private final TranscationService transactionService;
+
+    /**
+     * Constructor
+     */
+    public BudgetEvaluationEngine(TranscationService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * Compute spending (expenses only) for every budget over a period
+     * @param budgets Budgets to evaluate
+     * @param startDate Period start (inclusive)
+     * @param endDate Period end (inclusive)
+     * @return Typed summary of all budgets
+     */
+    public BudgetSummary evaluate(List<Budget> budgets, Date startDate, Date endDate) {
+        // Period totals per category, read from a few rollup buckets instead of the period's transactions
+        RollupTotals totals = transactionService.getTotals(startDate, endDate);
+        double totalSpent = totals.getExpense();
+
+        List<BudgetSummary.Entry> entries = new ArrayList<>();
+        BudgetSummary.Entry totalEntry = null;
+        for (Budget budget : budgets) {
+            if (budget.isTotalBudget()) {
+                totalEntry = new BudgetSummary.Entry(budget, totalSpent);
+            } else {
+                entries.add(new BudgetSummary.Entry(budget, totals.getCategoryExpense(budget.getCategory())));
+            }
+        }
+
+        return new BudgetSummary(startDate, endDate, entries, totalEntry, totalSpent);
+    }
+}
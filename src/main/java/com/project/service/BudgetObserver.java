@@ -0,0 +1,19 @@
+package com.project.service;
+
+/**
+ * Interface for observing budget data changes
+ */
+public interface BudgetObserver {
+    /**
+     * Called when budget data has changed
+     */
+    void onBudgetDataChanged();
+
+    /**
+     * Called once when a budget's usage first reaches an alert threshold within its period
+     * @param alert The crossing
+     */
+    default void onBudgetThresholdCrossed(BudgetAlert alert) {
+        // 默认空实现，可由实现类重写
+    }
+}
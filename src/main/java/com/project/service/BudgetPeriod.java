@@ -0,0 +1,66 @@
+package com.project.service;
+
+import com.project.model.Budget;
+import com.project.util.DateKeys;
+
+import java.util.Date;
+
+/**
+ * Spending of one period of a budget
+ */
+public class BudgetPeriod {
+    private final Budget budget;
+    private final Date startDate;
+    private final Date endDate;
+    private final double spent;
+
+    /**
+     * Constructor
+     * @param budget The budget
+     * @param startDay First epoch day of the period (Long.MIN_VALUE if open)
+     * @param endDay Last epoch day of the period (Long.MAX_VALUE if open)
+     * @param spent Spending in the period
+     */
+    BudgetPeriod(Budget budget, long startDay, long endDay, double spent) {
+        this.budget = budget;
+        this.startDate = startDay == Long.MIN_VALUE ? null : DateKeys.startOfEpochDay(startDay);
+        this.endDate = endDay == Long.MAX_VALUE ? null : DateKeys.startOfEpochDay(endDay);
+        this.spent = spent;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    /**
+     * First day of the period, or null if open
+     */
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Last day of the period, or null if open
+     */
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    public double getSpent() {
+        return spent;
+    }
+
+    /**
+     * Remaining amount (negative if overspent)
+     */
+    public double getRemaining() {
+        return budget.getAmount() - spent;
+    }
+
+    /**
+     * Percentage of budget used (can be >100 if overspent)
+     */
+    public double getUsagePercentage() {
+        return budget.getAmount() > 0 ? (spent / budget.getAmount()) * 100 : 0;
+    }
+}
@@ -2,16 +2,27 @@ package com.project.service;
 
 import com.project.model.Budget;
 import com.project.model.Transcation;
+import com.project.util.DateKeys;
+import com.project.util.IntervalIndex;
 
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Budget service handles budget data business logic
  */
 public class BudgetService {
-    private List<Budget> budgets;
+    // Budgets by ID, in the order they were added
+    private Map<Integer, Budget> budgets;
+    private Map<String, List<Budget>> budgetsByCategory;
     private TranscationService transactionService;
+    private BudgetEvaluationEngine evaluationEngine;
+    private SpendingAggregationService spendingAggregation;
+    private SpendingForecaster forecaster;
+    private Map<Integer, BudgetTracker> trackers;
+    private IntervalIndex<BudgetTracker> activeIndex;
+    // Alert thresholds in percent of the budget amount, ascending
+    private double[] alertThresholds = {85, 100};
     private int nextId;
     private List<BudgetObserver> observers = new ArrayList<>();
 
@@ -19,9 +30,27 @@ public class BudgetService {
      * Constructor
      */
     public BudgetService(TranscationService transactionService) {
-        this.budgets = new ArrayList<>();
+        this(transactionService, new SpendingAggregationService(transactionService));
+    }
+
+    /**
+     * Constructor with the spending aggregates shared with other consumers
+     */
+    public BudgetService(TranscationService transactionService, SpendingAggregationService spendingAggregation) {
+        this.budgets = new LinkedHashMap<>();
+        this.budgetsByCategory = new HashMap<>();
         this.transactionService = transactionService;
+        this.evaluationEngine = new BudgetEvaluationEngine(transactionService);
+        this.spendingAggregation = spendingAggregation;
+        this.forecaster = new SpendingForecaster();
+        this.trackers = new HashMap<>();
+        this.activeIndex = new IntervalIndex<>(new ArrayList<>(), BudgetTracker::getStartDay, BudgetTracker::getEndDay);
         this.nextId = 1;
+
+        for (Transcation transaction : transactionService.getAllTransactions()) {
+            forecaster.add(transaction);
+        }
+        transactionService.addObserver(new SpendingListener());
     }
 
     /**
@@ -47,12 +76,76 @@ public class BudgetService {
         }
     }
 
+    /**
+     * Notify all observers of a threshold crossing
+     */
+    private void notifyThresholdCrossed(BudgetAlert alert) {
+        for (BudgetObserver observer : observers) {
+            observer.onBudgetThresholdCrossed(alert);
+        }
+    }
+
+    /**
+     * Set the usage percentages that raise a budget alert
+     * Thresholds already reached by current spending are not reported again
+     * @param thresholds Percentages of the budget amount, e.g. 85 and 100
+     */
+    public void setAlertThresholds(double... thresholds) {
+        double[] sorted = thresholds.clone();
+        for (double threshold : sorted) {
+            if (!(threshold > 0)) {
+                throw new IllegalArgumentException("Alert thresholds must be positive: " + threshold);
+            }
+        }
+        Arrays.sort(sorted);
+        alertThresholds = sorted;
+
+        for (BudgetTracker tracker : trackers.values()) {
+            for (int period = 0; period < tracker.getPeriodCount(); period++) {
+                tracker.setAlertedCount(period, countReached(tracker.getUsagePercentage(period)));
+            }
+        }
+    }
+
+    /**
+     * Get the usage percentages that raise a budget alert, ascending
+     */
+    public double[] getAlertThresholds() {
+        return alertThresholds.clone();
+    }
+
+    /**
+     * Report the thresholds a budget period has newly reached, each once per budget period
+     * Periods that have already ended (e.g. reached by importing old statements) are not reported
+     */
+    private void checkAlerts(BudgetTracker tracker, int period) {
+        if (tracker.getPeriodEndDay(period) < DateKeys.epochDay(new Date())) {
+            return;
+        }
+
+        double usage = tracker.getUsagePercentage(period);
+        while (tracker.getAlertedCount(period) < alertThresholds.length && usage >= alertThresholds[tracker.getAlertedCount(period)]) {
+            double threshold = alertThresholds[tracker.getAlertedCount(period)];
+            tracker.setAlertedCount(period, tracker.getAlertedCount(period) + 1);
+            notifyThresholdCrossed(new BudgetAlert(tracker.getBudget(), threshold, tracker.getSpent(period)));
+        }
+    }
+
+    private int countReached(double usage) {
+        int count = 0;
+        while (count < alertThresholds.length && usage >= alertThresholds[count]) {
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Add a budget
      */
     public void addBudget(Budget budget) {
         budget.setId(nextId++);
-        budgets.add(budget);
+        budgets.put(budget.getId(), budget);
+        track(budget);
         notifyObservers();
     }
 
@@ -60,12 +153,10 @@ public class BudgetService {
      * Update an existing budget
      */
     public void updateBudget(Budget budget) {
-        for (int i = 0; i < budgets.size(); i++) {
-            if (budgets.get(i).getId() == budget.getId()) {
-                budgets.set(i, budget);
-                notifyObservers();
-                break;
-            }
+        if (budgets.containsKey(budget.getId())) {
+            budgets.put(budget.getId(), budget);
+            track(budget);
+            notifyObservers();
         }
     }
 
@@ -73,54 +164,199 @@ public class BudgetService {
      * Delete a budget
      */
     public void deleteBudget(int budgetId) {
-        budgets.removeIf(budget -> budget.getId() == budgetId);
+        budgets.remove(budgetId);
+        BudgetTracker tracker = trackers.remove(budgetId);
+        if (tracker != null) {
+            unindexCategory(tracker);
+        }
+        rebuildActiveIndex();
         notifyObservers();
     }
 
+    /**
+     * Start (or restart) the running totals of a budget from the transactions in its interval
+     */
+    private void track(Budget budget) {
+        if (budget.isRecurring() && budget.getStartDate() == null) {
+            // Pin the calendar anchor, so the periods (and their alerts) stay put when the budget is re-tracked later
+            long anchor = budget.getRecurrence().calendarPeriodStart(LocalDate.now()).toEpochDay();
+            budget.setStartDate(DateKeys.startOfEpochDay(anchor));
+        }
+        BudgetTracker tracker = newTracker(budget);
+
+        // Editing a budget does not repeat alerts already raised for the same period
+        BudgetTracker previous = trackers.put(budget.getId(), tracker);
+        if (previous != null) {
+            unindexCategory(previous);
+            tracker.copyAlerts(previous);
+        }
+        budgetsByCategory.computeIfAbsent(tracker.getCategory(), c -> new ArrayList<>()).add(budget);
+        rebuildActiveIndex();
+        checkAlerts(tracker, tracker.getCurrentPeriod());
+    }
+
+    /**
+     * Compute the totals of every period of a budget in one pass over its interval
+     */
+    private BudgetTracker newTracker(Budget budget) {
+        BudgetTracker tracker = new BudgetTracker(budget);
+        for (Transcation transaction : transactionService.getTransactionsByDateRange(tracker.getIntervalStart(), tracker.getIntervalEnd())) {
+            tracker.apply(transaction, DateKeys.epochDay(transaction.getDate()), 1);
+        }
+        return tracker;
+    }
+
+    /**
+     * Remove a budget from the category index under the category it was tracked with
+     */
+    private void unindexCategory(BudgetTracker tracker) {
+        List<Budget> sameCategory = budgetsByCategory.get(tracker.getCategory());
+        if (sameCategory != null) {
+            sameCategory.removeIf(budget -> budget.getId() == tracker.getBudget().getId());
+            if (sameCategory.isEmpty()) {
+                budgetsByCategory.remove(tracker.getCategory());
+            }
+        }
+    }
+
+    /**
+     * Budgets change rarely compared to transactions, so the interval index is simply rebuilt
+     */
+    private void rebuildActiveIndex() {
+        activeIndex = new IntervalIndex<>(new ArrayList<>(trackers.values()), BudgetTracker::getStartDay, BudgetTracker::getEndDay);
+    }
+
+    /**
+     * Apply a transaction to the budgets whose interval contains its date
+     * Only those budgets are checked for alerts, so the cost per transaction is O(log n + affected budgets)
+     */
+    private void applyToBudgets(Transcation transaction, int sign) {
+        long day = DateKeys.epochDay(transaction.getDate());
+        for (BudgetTracker tracker : activeIndex.stab(day)) {
+            int period = tracker.apply(transaction, day, sign);
+            if (period >= 0 && sign > 0) {
+                checkAlerts(tracker, period);
+            }
+        }
+    }
+
     /**
      * Get all budgets
      */
     public List<Budget> getAllBudgets() {
-        return new ArrayList<>(budgets);
+        return new ArrayList<>(budgets.values());
+    }
+
+    /**
+     * Get budgets whose date interval contains a date, in the order they were added
+     */
+    public List<Budget> getActiveBudgets(Date date) {
+        return getActiveBudgets(date, date);
+    }
+
+    /**
+     * Get budgets whose date interval overlaps a period, in the order they were added
+     */
+    public List<Budget> getActiveBudgets(Date startDate, Date endDate) {
+        List<BudgetTracker> active = activeIndex.overlapping(DateKeys.epochDay(startDate), DateKeys.epochDay(endDate));
+        active.sort(Comparator.comparingInt(tracker -> tracker.getBudget().getId()));
+
+        List<Budget> result = new ArrayList<>(active.size());
+        for (BudgetTracker tracker : active) {
+            result.add(tracker.getBudget());
+        }
+        return result;
+    }
+
+    /**
+     * Get category budgets (total budget excluded) whose date interval contains a date
+     */
+    public List<Budget> getActiveCategoryBudgets(Date date) {
+        List<Budget> result = getActiveBudgets(date);
+        result.removeIf(Budget::isTotalBudget);
+        return result;
+    }
+
+    /**
+     * Get the budget of a category active on a date
+     * @return The most recently added matching budget, or null if none
+     */
+    public Budget getActiveBudget(String category, Date date) {
+        Budget result = null;
+        for (BudgetTracker tracker : activeIndex.stab(DateKeys.epochDay(date))) {
+            if (tracker.getCategory().equals(category) && (result == null || tracker.getBudget().getId() > result.getId())) {
+                result = tracker.getBudget();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the total budget active today
+     * @return The total budget, or null if none is set
+     */
+    public Budget getTotalBudget() {
+        return getActiveBudget(Budget.TOTAL_BUDGET, new Date());
     }
 
     /**
      * Get a budget by ID
      */
     public Budget getBudgetById(int id) {
-        return budgets.stream()
-                .filter(budget -> budget.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return budgets.get(id);
     }
 
     /**
-     * Get budgets by category
+     * Get budgets by category (all periods, in the order they were added)
      */
     public List<Budget> getBudgetsByCategory(String category) {
-        return budgets.stream()
-                .filter(budget -> budget.getCategory().equals(category))
-                .collect(Collectors.toList());
+        List<Budget> result = new ArrayList<>(budgetsByCategory.getOrDefault(category, Collections.emptyList()));
+        // Edited budgets are re-indexed at the end of their list
+        result.sort(Comparator.comparingInt(Budget::getId));
+        return result;
     }
 
     /**
-     * Calculate the spending for a specific budget (only current month expenses, no income)
+     * Calculate the spending for a specific budget (expenses within its start/end dates, no income)
+     * For a recurring budget this is the spending of the current period
+     * Budgets added to this service keep a running total, so the cost does not depend on the ledger size
      * @param budget The budget to calculate spending for
      * @return The total spending amount for this budget
      */
     public double calculateBudgetSpending(Budget budget) {
-        // Get current month transactions
-        List<Transcation> currentMonthTransactions = getCurrentMonthTransactions();
-
-        // Filter by category and expenses only (no income)
-        double totalSpending = 0.0;
-        for (Transcation transaction : currentMonthTransactions) {
-            if (!transaction.isIncome() && transaction.getCategory().equals(budget.getCategory())) {
-                totalSpending += transaction.getAmount();
-            }
-        }
+        return trackerOf(budget).getSpent();
+    }
+
+    /**
+     * Running totals of a budget; a budget not (or not yet) managed by this service is evaluated on the fly
+     */
+    private BudgetTracker trackerOf(Budget budget) {
+        BudgetTracker tracker = trackers.get(budget.getId());
+        return tracker != null && tracker.getBudget() == budget ? tracker : newTracker(budget);
+    }
 
-        return totalSpending;
+    /**
+     * Project the spending of a budget at the end of its current period
+     * Uses the category's daily spending rate and day-of-month pattern (all categories for the total budget)
+     */
+    public SpendingForecast forecastBudgetSpending(Budget budget) {
+        BudgetTracker tracker = trackerOf(budget);
+        int period = tracker.getCurrentPeriod();
+        return forecaster.forecast(tracker.isTotalBudget() ? null : tracker.getCategory(), tracker.getSpent(period),
+                tracker.getPeriodStartDay(period), tracker.getPeriodEndDay(period));
+    }
+
+    /**
+     * Get the spending of every period of a budget, oldest first
+     * Open-ended recurring budgets list their periods up to about a year from today
+     */
+    public List<BudgetPeriod> getBudgetPeriods(Budget budget) {
+        BudgetTracker tracker = trackerOf(budget);
+        List<BudgetPeriod> result = new ArrayList<>(tracker.getPeriodCount());
+        for (int period = 0; period < tracker.getPeriodCount(); period++) {
+            result.add(new BudgetPeriod(budget, tracker.getPeriodStartDay(period), tracker.getPeriodEndDay(period), tracker.getSpent(period)));
+        }
+        return result;
     }
 
     /**
@@ -147,83 +383,107 @@ public class BudgetService {
     }
 
     /**
-     * Get budget summary data for all budgets (based on current month)
-     * @return Map of budget categories with their spent/total amounts
+     * Get budget summary data for the budgets active today
+     * Each budget is evaluated over its own start/end dates; the summary period is the current month
+     * @return Summary with spent/remaining amounts of each category budget and the total budget
      */
-    public Map<String, Map<String, Double>> getBudgetSummary() {
-        Map<String, Map<String, Double>> summary = new HashMap<>();
-
-        for (Budget budget : getAllBudgets()) {
-            // Skip total budget
-            if (budget.getCategory().equals("Total Budget")) {
-                continue;
+    public BudgetSummary getBudgetSummary() {
+        List<BudgetSummary.Entry> entries = new ArrayList<>();
+        BudgetSummary.Entry totalEntry = null;
+        for (Budget budget : latestPerCategory(getActiveBudgets(new Date()))) {
+            BudgetSummary.Entry entry = new BudgetSummary.Entry(budget, trackers.get(budget.getId()).getSpent());
+            if (budget.isTotalBudget()) {
+                totalEntry = entry;
+            } else {
+                entries.add(entry);
             }
+        }
 
-            String category = budget.getCategory();
-            double budgetAmount = budget.getAmount();
-            double spentAmount = calculateBudgetSpending(budget);
+        double totalSpent = totalEntry != null ? totalEntry.getSpent() : getCurrentMonthTotalExpense();
+        Date[] period = getCurrentMonthPeriod();
+        return new BudgetSummary(period[0], period[1], entries, totalEntry, totalSpent);
+    }
 
-            Map<String, Double> categoryData = new HashMap<>();
-            categoryData.put("budget", budgetAmount);
-            categoryData.put("spent", spentAmount);
-            categoryData.put("remaining", budgetAmount - spentAmount);
+    /**
+     * Get budget summary data for the budgets active during an arbitrary period
+     * The period's spending is evaluated once; if several budgets of a category overlap the
+     * period, the most recently added one is used
+     */
+    public BudgetSummary getBudgetSummary(Date startDate, Date endDate) {
+        return evaluationEngine.evaluate(latestPerCategory(getActiveBudgets(startDate, endDate)), startDate, endDate);
+    }
 
-            summary.put(category, categoryData);
+    /**
+     * Keep the most recently added budget of each category
+     * @param budgets Budgets in the order they were added
+     */
+    private static List<Budget> latestPerCategory(List<Budget> budgets) {
+        Map<String, Budget> latest = new LinkedHashMap<>();
+        for (Budget budget : budgets) {
+            latest.remove(budget.getCategory());
+            latest.put(budget.getCategory(), budget);
         }
-
-        return summary;
+        return new ArrayList<>(latest.values());
     }
 
     /**
      * Get current month total expense (no income)
      */
     public double getCurrentMonthTotalExpense() {
-        List<Transcation> currentMonthTransactions = getCurrentMonthTransactions();
-        double totalExpense = 0;
-
-        for (Transcation transaction : currentMonthTransactions) {
-            if (!transaction.isIncome()) { // Only count expenses
-                totalExpense += transaction.getAmount();
-            }
-        }
-
-        return totalExpense;
+        return spendingAggregation.getCurrentMonth().getTotalExpense();
     }
 
     /**
-     * Get current month transactions
+     * Get current month expenses per category (no income)
      */
-    private List<Transcation> getCurrentMonthTransactions() {
-        List<Transcation> allTransactions = transactionService.getAllTransactions();
-        List<Transcation> currentMonthTransactions = new ArrayList<>();
+    public Map<String, Double> getCurrentMonthCategoryExpenses() {
+        return spendingAggregation.getCurrentMonth().getCategoryExpenses();
+    }
 
-        if (allTransactions.isEmpty()) {
-            return currentMonthTransactions;
-        }
+    /**
+     * Get the spending aggregates this service reads from
+     */
+    public SpendingAggregationService getSpendingAggregation() {
+        return spendingAggregation;
+    }
 
-        // Get current month's year and month
+    /**
+     * Get first and last instant of the current month
+     */
+    private Date[] getCurrentMonthPeriod() {
         Calendar cal = Calendar.getInstance();
-        int currentYear = cal.get(Calendar.YEAR);
-        int currentMonth = cal.get(Calendar.MONTH);
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        Date start = cal.getTime();
 
-        // Filter current month transactions
-        for (Transcation transaction : allTransactions) {
-            if (transaction == null || transaction.getDate() == null) {
-                continue;
-            }
+        cal.add(Calendar.MONTH, 1);
+        Date end = new Date(cal.getTimeInMillis() - 1);
 
-            // Get transaction date's year and month
-            Calendar transCal = Calendar.getInstance();
-            transCal.setTime(transaction.getDate());
-            int transYear = transCal.get(Calendar.YEAR);
-            int transMonth = transCal.get(Calendar.MONTH);
+        return new Date[]{start, end};
+    }
 
-            // Only match year and month
-            if (transYear == currentYear && transMonth == currentMonth) {
-                currentMonthTransactions.add(transaction);
-            }
+    /**
+     * Keeps the forecast statistics and budget totals in step with the transaction ledger
+     */
+    private class SpendingListener implements TransactionObserver {
+        @Override
+        public void onTransactionDataChanged() {
+            // Counters are updated by the fine-grained callbacks
+        }
+
+        @Override
+        public void onTransactionAdded(Transcation transaction) {
+            forecaster.add(transaction);
+            applyToBudgets(transaction, 1);
         }
 
-        return currentMonthTransactions;
+        @Override
+        public void onTransactionRemoved(Transcation transaction) {
+            forecaster.remove(transaction);
+            applyToBudgets(transaction, -1);
+        }
     }
-}
\ No newline at end of file
+}
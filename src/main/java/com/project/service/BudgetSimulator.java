@@ -0,0 +1,131 @@
+package com.project.service;
+
+import com.project.model.Budget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Replays candidate budget sets against the months of the ledger
+ * Scenarios are evaluated in parallel with fork-join; every scenario reads the cached month
+ * aggregates of the report generator instead of rescanning the transactions
+ */
+public class BudgetSimulator {
+    // Scenarios evaluated by one fork-join leaf
+    private static final int SCENARIOS_PER_TASK = 4;
+
+    private final MonthlyReportGenerator reportGenerator;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor
+     */
+    public BudgetSimulator(MonthlyReportGenerator reportGenerator) {
+        this(reportGenerator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with the pool the scenarios are evaluated on
+     */
+    public BudgetSimulator(MonthlyReportGenerator reportGenerator, ForkJoinPool pool) {
+        this.reportGenerator = reportGenerator;
+        this.pool = pool;
+    }
+
+    /**
+     * Replay every scenario against the full history
+     * Each budget is applied with its monthly amount to every month it covers: recurring and
+     * open-ended budgets to all months, a one-off budget with a date range only to the months it
+     * overlaps, prorated by day.
+     * Safe to call off the event thread: months come from {@link MonthlyReportGenerator#aggregate()}
+     * and the scenarios must not be budgets the budget service still updates
+     * @param scenarios Candidate budget sets
+     * @return One result per scenario, in the same order
+     */
+    public List<SimulationResult> simulate(List<List<Budget>> scenarios) {
+        return simulate(scenarios, reportGenerator.aggregate());
+    }
+
+    /**
+     * Replay every scenario against a snapshot of aggregated months
+     * @param scenarios Candidate budget sets
+     * @param months Month reports in month order, e.g. from {@link MonthlyReportGenerator#aggregate()}
+     * @return One result per scenario, in the same order
+     */
+    public List<SimulationResult> simulate(List<List<Budget>> scenarios, List<MonthlyReport> months) {
+        SimulationResult[] results = new SimulationResult[scenarios.size()];
+        if (!scenarios.isEmpty()) {
+            pool.invoke(new ScenarioTask(scenarios, months, results, 0, results.length));
+        }
+
+        List<SimulationResult> list = new ArrayList<>(results.length);
+        for (SimulationResult result : results) {
+            list.add(result);
+        }
+        return list;
+    }
+
+    private static SimulationResult replay(List<Budget> scenario, List<MonthlyReport> months) {
+        List<SimulationResult.BudgetOutcome> outcomes = new ArrayList<>(scenario.size());
+        for (Budget budget : scenario) {
+            int monthsExceeded = 0;
+            double totalOverspend = 0;
+            double maxOverspend = 0;
+
+            int monthsEvaluated = 0;
+            for (MonthlyReport month : months) {
+                int yearMonth = month.getYearMonth();
+                if (!MonthlyReportGenerator.appliesTo(budget, yearMonth)) {
+                    continue;
+                }
+                monthsEvaluated++;
+                double actual = budget.isTotalBudget()
+                        ? month.getExpense()
+                        : month.getCategoryExpenses().getOrDefault(budget.getCategory(), 0.0);
+                double overspend = actual - MonthlyReportGenerator.monthlyAmount(budget, yearMonth);
+                if (overspend > 0) {
+                    monthsExceeded++;
+                    totalOverspend += overspend;
+                    maxOverspend = Math.max(maxOverspend, overspend);
+                }
+            }
+
+            outcomes.add(new SimulationResult.BudgetOutcome(budget, monthsEvaluated, monthsExceeded, totalOverspend, maxOverspend));
+        }
+        return new SimulationResult(outcomes);
+    }
+
+    /**
+     * Replays a range of scenarios, splitting it in halves until it is small
+     */
+    private static class ScenarioTask extends RecursiveAction {
+        private final List<List<Budget>> scenarios;
+        private final List<MonthlyReport> months;
+        private final SimulationResult[] results;
+        private final int from;
+        private final int to;
+
+        ScenarioTask(List<List<Budget>> scenarios, List<MonthlyReport> months, SimulationResult[] results, int from, int to) {
+            this.scenarios = scenarios;
+            this.months = months;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCENARIOS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    results[i] = replay(scenarios.get(i), months);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScenarioTask(scenarios, months, results, from, mid), new ScenarioTask(scenarios, months, results, mid, to));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.service;
+
+import com.project.model.Budget;
+
+import java.util.*;
+
+/**
+ * Budget evaluation result for one period
+ * Holds the spending of every category budget plus the total budget and total expense
+ */
+public class BudgetSummary {
+    private final Date startDate;
+    private final Date endDate;
+    private final List<Entry> entries;
+    private final Map<String, Entry> entriesByCategory;
+    private final Entry totalEntry;
+    private final double totalSpent;
+
+    /**
+     * Constructor
+     * @param startDate Period start
+     * @param endDate Period end
+     * @param entries Category budget entries
+     * @param totalEntry Total budget entry, or null if no total budget is set
+     * @param totalSpent Total expense in the period (all categories)
+     */
+    public BudgetSummary(Date startDate, Date endDate, List<Entry> entries, Entry totalEntry, double totalSpent) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+        this.totalEntry = totalEntry;
+        this.totalSpent = totalSpent;
+
+        Map<String, Entry> byCategory = new HashMap<>();
+        for (Entry entry : entries) {
+            byCategory.put(entry.getCategory(), entry);
+        }
+        this.entriesByCategory = Collections.unmodifiableMap(byCategory);
+    }
+
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    public Date getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Get category budget entries (total budget excluded)
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get the entry of a category budget
+     * @return The entry, or null if the category has no budget
+     */
+    public Entry getEntry(String category) {
+        return entriesByCategory.get(category);
+    }
+
+    /**
+     * Get the total budget entry
+     * @return The entry, or null if no total budget is set
+     */
+    public Entry getTotalEntry() {
+        return totalEntry;
+    }
+
+    /**
+     * Get total expense in the period across all categories
+     */
+    public double getTotalSpent() {
+        return totalSpent;
+    }
+
+    /**
+     * Spending of one budget in the period
+     */
+    public static class Entry {
+        private final Budget budget;
+        private final double spent;
+
+        public Entry(Budget budget, double spent) {
+            this.budget = budget;
+            this.spent = spent;
+        }
+
+        public Budget getBudget() {
+            return budget;
+        }
+
+        public String getCategory() {
+            return budget.getCategory();
+        }
+
+        public double getBudgetAmount() {
+            return budget.getAmount();
+        }
+
+        public double getSpent() {
+            return spent;
+        }
+
+        /**
+         * Remaining amount (negative if overspent)
+         */
+        public double getRemaining() {
+            return budget.getAmount() - spent;
+        }
+
+        /**
+         * Percentage of budget used (can be >100 if overspent)
+         */
+        public double getUsagePercentage() {
+            return budget.getAmount() > 0 ? (spent / budget.getAmount()) * 100 : 0;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.project.service;
+
+import com.project.model.Budget;
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+import com.project.util.PeriodTable;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Running spending totals of one budget, one per budget period
+ * A non-recurring budget has a single period spanning its start/end dates; a recurring budget
+ * has a period table mapping each epoch day to its period. Days are used so the last day of a
+ * period counts in full
+ */
+class BudgetTracker {
+    // Open-ended recurring budgets get a table this far past today, extended on demand
+    private static final int COVERAGE_DAYS = 400;
+
+    private final Budget budget;
+    // Category when tracking started; the budget object may be edited in place before it is re-tracked
+    private final String category;
+    private final long startDay;
+    private final long endDay;
+    private PeriodTable periods;
+    private long[] spentCents;
+    // Number of alert thresholds (ascending) already reported per period
+    private int[] alertedCounts;
+
+    /**
+     * Constructor, starts with nothing spent
+     */
+    BudgetTracker(Budget budget) {
+        this.budget = budget;
+        this.category = budget.getCategory();
+
+        long today = DateKeys.epochDay(new Date());
+        if (budget.getStartDate() != null) {
+            this.startDay = DateKeys.epochDay(budget.getStartDate());
+        } else {
+            // A recurring budget needs an anchor for its periods: the calendar period containing today
+            this.startDay = budget.isRecurring()
+                    ? budget.getRecurrence().calendarPeriodStart(LocalDate.ofEpochDay(today)).toEpochDay()
+                    : Long.MIN_VALUE;
+        }
+        this.endDay = budget.getEndDate() != null ? DateKeys.epochDay(budget.getEndDate()) : Long.MAX_VALUE;
+
+        long lastDay = endDay;
+        if (budget.isRecurring() && endDay == Long.MAX_VALUE) {
+            lastDay = Math.max(today, startDay) + COVERAGE_DAYS;
+        }
+        this.periods = new PeriodTable(budget.getRecurrence(), startDay, lastDay);
+        this.spentCents = new long[periods.getPeriodCount()];
+        this.alertedCounts = new int[periods.getPeriodCount()];
+    }
+
+    Budget getBudget() {
+        return budget;
+    }
+
+    String getCategory() {
+        return category;
+    }
+
+    boolean isTotalBudget() {
+        return Budget.TOTAL_BUDGET.equals(category);
+    }
+
+    Budget.Recurrence getRecurrence() {
+        return periods.getRecurrence();
+    }
+
+    long getStartDay() {
+        return startDay;
+    }
+
+    long getEndDay() {
+        return endDay;
+    }
+
+    /**
+     * First instant of the budget interval (all periods)
+     */
+    Date getIntervalStart() {
+        return startDay == Long.MIN_VALUE ? new Date(Long.MIN_VALUE) : DateKeys.startOfEpochDay(startDay);
+    }
+
+    /**
+     * Last instant of the budget interval (all periods)
+     */
+    Date getIntervalEnd() {
+        return endDay == Long.MAX_VALUE ? new Date(Long.MAX_VALUE) : new Date(DateKeys.startOfEpochDay(endDay + 1).getTime() - 1);
+    }
+
+    /**
+     * Whether an expense on a day within the interval counts towards this budget
+     */
+    boolean counts(Transcation transaction) {
+        return !transaction.isIncome()
+                && (isTotalBudget() || category.equals(transaction.getCategory()));
+    }
+
+    /**
+     * Add (sign 1) or remove (sign -1) a transaction
+     * @param day Epoch day of the transaction
+     * @return The period the transaction was counted in, or -1 if it does not count
+     */
+    int apply(Transcation transaction, long day, int sign) {
+        if (!counts(transaction) || day < startDay || day > endDay) {
+            return -1;
+        }
+
+        int period = periodOf(day);
+        spentCents[period] += sign * Math.round(transaction.getAmount() * 100);
+        return period;
+    }
+
+    /**
+     * Period of a day within the interval, extending the table of an open-ended budget if needed
+     */
+    private int periodOf(long day) {
+        if (day > periods.getLastDay()) {
+            long span = periods.getLastDay() - startDay + 1;
+            long lastDay = Math.min(endDay, Math.max(day, periods.getLastDay() + span));
+            periods = new PeriodTable(periods.getRecurrence(), startDay, lastDay);
+            spentCents = Arrays.copyOf(spentCents, periods.getPeriodCount());
+            alertedCounts = Arrays.copyOf(alertedCounts, periods.getPeriodCount());
+        }
+        return periods.periodOf(day);
+    }
+
+    /**
+     * Period containing today, or the nearest period if today is outside the interval
+     */
+    int getCurrentPeriod() {
+        long today = DateKeys.epochDay(new Date());
+        if (today < startDay) {
+            return 0;
+        }
+        if (today > endDay) {
+            return periods.getPeriodCount() - 1;
+        }
+        return periodOf(today);
+    }
+
+    int getPeriodCount() {
+        return periods.getPeriodCount();
+    }
+
+    long getPeriodStartDay(int period) {
+        return periods.getPeriodStart(period);
+    }
+
+    long getPeriodEndDay(int period) {
+        return periods.getPeriodEnd(period);
+    }
+
+    /**
+     * Spending in the current period
+     */
+    double getSpent() {
+        return getSpent(getCurrentPeriod());
+    }
+
+    double getSpent(int period) {
+        return spentCents[period] / 100.0;
+    }
+
+    double getUsagePercentage(int period) {
+        return budget.getAmount() > 0 ? (getSpent(period) / budget.getAmount()) * 100 : 0;
+    }
+
+    int getAlertedCount(int period) {
+        return alertedCounts[period];
+    }
+
+    void setAlertedCount(int period, int alertedCount) {
+        alertedCounts[period] = alertedCount;
+    }
+
+    /**
+     * Keep the alerts already raised by a previous tracker of the same budget, if its periods are unchanged
+     */
+    void copyAlerts(BudgetTracker previous) {
+        if (previous.startDay == startDay && previous.endDay == endDay && previous.getRecurrence() == getRecurrence()) {
+            System.arraycopy(previous.alertedCounts, 0, alertedCounts, 0, Math.min(previous.alertedCounts.length, alertedCounts.length));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.service;
+
+import com.project.util.DateKeys;
+
+/**
+ * Expense total of every day from the oldest to the most recent transaction
+ * Days without expenses are included as zero
+ */
+public class DailyExpenses {
+    private final long firstDay;
+    private final double[] amounts;
+
+    /**
+     * Constructor
+     * @param firstDay Epoch day of the first value (see {@link DateKeys#epochDay(long)})
+     * @param amounts Expense per day; the array is not copied
+     */
+    public DailyExpenses(long firstDay, double[] amounts) {
+        this.firstDay = firstDay;
+        this.amounts = amounts;
+    }
+
+    public long getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * Number of days
+     */
+    public int size() {
+        return amounts.length;
+    }
+
+    /**
+     * Expense of the n-th day
+     */
+    public double get(int index) {
+        return amounts[index];
+    }
+}
@@ -0,0 +1,358 @@
+package com.project.service;
+
+import com.project.util.CSVImporter;
+import com.project.util.ColumnPlan;
+import com.project.util.ImportSummary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Watch-folder ingestion of bank exports
+ * Detects new CSV files and lines appended to existing ones with a WatchService, keeps a byte
+ * offset per file so only the new tail is parsed, and hands each batch to the transaction
+ * service's bulk import path. A file that was truncated or replaced is read again from the
+ * start; rows already imported are skipped as duplicates
+ */
+public class FolderWatchService {
+    // Wait this long after the last change event before reading, so a file being written is read once
+    private static final long SETTLE_MILLIS = 500;
+    // Files that keep changing are still read at least this often
+    private static final long MAX_DELAY_MILLIS = 2000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final TranscationService transactionService;
+    private final Path folder;
+    private final Executor deliveryExecutor;
+    private final CSVImporter importer = new CSVImporter();
+    private final Map<Path, FileState> fileStates = new HashMap<>();
+
+    private Consumer<ImportSummary> importListener;
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     * @param transactionService Service receiving the imported rows
+     * @param folder Folder to watch
+     * @param deliveryExecutor Executor the service is updated on (e.g. the Swing event thread)
+     */
+    public FolderWatchService(TranscationService transactionService, Path folder, Executor deliveryExecutor) {
+        this.transactionService = transactionService;
+        this.folder = folder;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Set a listener called on the delivery executor after each batch is imported
+     * Files or the folder that cannot be read are reported to it as rejected rows
+     */
+    public void setImportListener(Consumer<ImportSummary> importListener) {
+        this.importListener = importListener;
+    }
+
+    /**
+     * Start watching; CSV files already in the folder are imported first
+     * @throws IOException If the folder cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+
+        watchService = folder.getFileSystem().newWatchService();
+        folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        running = true;
+
+        watchThread = new Thread(this::watchLoop, "folder-watch-" + folder.getFileName());
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stop watching
+     */
+    public synchronized void stop() {
+        running = false;
+        if (watchThread != null) {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                report(folder.toString(), "Cannot close folder watch: " + e.getMessage());
+            }
+            watchService = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Path getFolder() {
+        return folder;
+    }
+
+    private void watchLoop() {
+        WatchService watcher = watchService;
+        Set<Path> pending = new LinkedHashSet<>(listCsvFiles());
+        long pendingSince = System.currentTimeMillis();
+
+        try {
+            while (running) {
+                WatchKey key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (key != null) {
+                    if (pending.isEmpty()) {
+                        pendingSince = System.currentTimeMillis();
+                    }
+
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            pending.addAll(listCsvFiles());
+                        } else {
+                            Path path = folder.resolve((Path) event.context());
+                            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                                // A file created again under the same name is read from the start
+                                pending.remove(path);
+                                fileStates.remove(path);
+                            } else if (isCsv(path)) {
+                                pending.add(path);
+                            }
+                        }
+                    }
+
+                    if (!key.reset()) {
+                        // Folder is no longer accessible
+                        running = false;
+                    }
+                }
+
+                // Read once the folder is quiet, or periodically while a file keeps growing
+                boolean quiet = key == null;
+                boolean overdue = System.currentTimeMillis() - pendingSince > MAX_DELAY_MILLIS;
+                if (!pending.isEmpty() && (quiet || overdue)) {
+                    ingest(pending);
+                    pending.clear();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    /**
+     * Read the new tails of the changed files and deliver them as one batch
+     */
+    void ingest(Set<Path> paths) {
+        ImportSummary summary = new ImportSummary();
+
+        for (Path path : paths) {
+            try {
+                readTail(path, summary);
+            } catch (IOException e) {
+                // File may still be locked by the writer; it is retried on the next change
+                FileState state = fileStates.get(path);
+                summary.reject(path.toString(), state == null ? 0 : state.lineNumber, "Cannot read file: " + e.getMessage());
+            }
+        }
+
+        if (summary.getAcceptedCount() == 0 && summary.getRejectedCount() == 0) {
+            return;
+        }
+
+        deliver(summary);
+    }
+
+    /**
+     * Import a batch on the delivery executor and pass its summary to the listener
+     */
+    private void deliver(ImportSummary summary) {
+        deliveryExecutor.execute(() -> {
+            if (!summary.getTransactions().isEmpty()) {
+                summary.setDuplicateCount(transactionService.importTransactions(summary.getTransactions(), true));
+            }
+            if (importListener != null) {
+                importListener.accept(summary);
+            }
+        });
+    }
+
+    /**
+     * Report a problem not tied to a row as a rejected line 0
+     */
+    private void report(String source, String reason) {
+        ImportSummary summary = new ImportSummary();
+        summary.reject(source, 0, reason);
+        deliver(summary);
+    }
+
+    /**
+     * Parse the complete lines appended to a file since the last read
+     * A trailing line without newline is left for the next read
+     */
+    private void readTail(Path path, ImportSummary summary) throws IOException {
+        FileState state = fileStates.computeIfAbsent(path, p -> new FileState());
+        Charset charset = Charset.defaultCharset();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (!state.isSameFile(attributes) || channel.size() < state.offset || !state.lastLineMatches(channel)) {
+                // File was truncated or replaced: start over, duplicates are skipped on import
+                state.reset();
+            }
+            state.fileKey = attributes.fileKey();
+            channel.position(state.offset);
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        state.consumed(line);
+                        handleLine(path, state, stripCarriageReturn(line.toString(charset)), summary);
+                        line.reset();
+                    } else {
+                        line.write(b);
+                    }
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    private void handleLine(Path path, FileState state, String line, ImportSummary summary) {
+        state.lineNumber++;
+
+        if (state.plan == null) {
+            // First line of the file is its header
+            try {
+                state.plan = importer.createPlan(importer.parseCSVLine(line), null);
+            } catch (ParseException e) {
+                state.plan = ColumnPlan.positional();
+            }
+            return;
+        }
+
+        if (line.trim().isEmpty()) {
+            return;
+        }
+
+        String[] values = importer.parseCSVLine(line);
+        if (!state.plan.accepts(values)) {
+            summary.reject(path.toString(), state.lineNumber,
+                    "Expected at least " + state.plan.getMinColumns() + " fields but found " + values.length);
+            return;
+        }
+
+        try {
+            summary.accept(state.plan.apply(values, true));
+        } catch (ParseException e) {
+            summary.reject(path.toString(), state.lineNumber, e.getMessage());
+        }
+    }
+
+    private List<Path> listCsvFiles() {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(folder)) {
+            stream.filter(this::isCsv).sorted().forEach(files::add);
+        } catch (IOException e) {
+            report(folder.toString(), "Cannot list folder: " + e.getMessage());
+        }
+        return files;
+    }
+
+    private boolean isCsv(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        // Reject files written by a tolerant import are not statements
+        return name.endsWith(".csv") && !name.endsWith(".rejects.csv") && Files.isRegularFile(path);
+    }
+
+    private static String stripCarriageReturn(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    /**
+     * Read position and column plan of one watched file
+     * The last complete line read is remembered by position and checksum, so a file rewritten
+     * in place with the same or a larger size is noticed as well
+     */
+    private static class FileState {
+        long offset;
+        long lineNumber;
+        ColumnPlan plan;
+        Object fileKey;
+        // Length (with newline) and checksum of the line ending at offset; 0 before the first line
+        int lastLineLength;
+        long lastLineChecksum;
+
+        /**
+         * Whether the attributes belong to the file read last time (a file moved over it has a new key)
+         * File keys are not available on every file system, so the last line is checked as well; creation
+         * times are not used since many file systems report the modification time instead
+         */
+        boolean isSameFile(BasicFileAttributes attributes) {
+            return offset == 0 || Objects.equals(fileKey, attributes.fileKey());
+        }
+
+        /**
+         * Whether the bytes before the offset are still the last line that was read
+         */
+        boolean lastLineMatches(FileChannel channel) throws IOException {
+            if (lastLineLength == 0) {
+                return true;
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(lastLineLength);
+            long position = offset - lastLineLength;
+            while (bytes.hasRemaining()) {
+                int read = channel.read(bytes, position + bytes.position());
+                if (read < 0) {
+                    return false;
+                }
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(bytes.array());
+            return checksum.getValue() == lastLineChecksum;
+        }
+
+        /**
+         * Advance past a complete line (without its newline)
+         */
+        void consumed(ByteArrayOutputStream line) {
+            CRC32 checksum = new CRC32();
+            checksum.update(line.toByteArray());
+            checksum.update('\n');
+            lastLineLength = line.size() + 1;
+            lastLineChecksum = checksum.getValue();
+            offset += lastLineLength;
+        }
+
+        void reset() {
+            offset = 0;
+            lineNumber = 0;
+            plan = null;
+            lastLineLength = 0;
+            lastLineChecksum = 0;
+        }
+    }
+}
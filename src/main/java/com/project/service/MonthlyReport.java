@@ -0,0 +1,151 @@
+package com.project.service;
+
+import com.project.util.DateKeys;
+
+import java.util.*;
+
+/**
+ * Report of one month: income, expense, category spending, budget vs. actual
+ * and changes from the previous month
+ */
+public class MonthlyReport {
+    private final int yearMonth;
+    private final double income;
+    private final double expense;
+    private final int transactionCount;
+    private final Map<String, Double> categoryExpenses;
+    private final List<BudgetLine> budgetLines;
+    private final MonthlyReport previous;
+
+    /**
+     * Constructor
+     * @param yearMonth Month number (see {@link DateKeys#yearMonth(Date)})
+     * @param income Total income in the month
+     * @param expense Total expense in the month
+     * @param transactionCount Number of transactions in the month
+     * @param categoryExpenses Expense per category
+     * @param budgetLines Budget vs. actual of the budgets active in the month
+     * @param previous Report of the previous month, or null for the first month
+     */
+    public MonthlyReport(int yearMonth, double income, double expense, int transactionCount,
+                         Map<String, Double> categoryExpenses, List<BudgetLine> budgetLines, MonthlyReport previous) {
+        this.yearMonth = yearMonth;
+        this.income = income;
+        this.expense = expense;
+        this.transactionCount = transactionCount;
+        this.categoryExpenses = Collections.unmodifiableMap(categoryExpenses);
+        this.budgetLines = Collections.unmodifiableList(new ArrayList<>(budgetLines));
+        this.previous = previous;
+    }
+
+    public int getYearMonth() {
+        return yearMonth;
+    }
+
+    /**
+     * Month as yyyy-MM
+     */
+    public String getMonth() {
+        return DateKeys.formatYearMonth(yearMonth);
+    }
+
+    public double getIncome() {
+        return income;
+    }
+
+    public double getExpense() {
+        return expense;
+    }
+
+    public double getNet() {
+        return income - expense;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Get expense per category
+     */
+    public Map<String, Double> getCategoryExpenses() {
+        return categoryExpenses;
+    }
+
+    /**
+     * Get budget vs. actual of the budgets active in the month (total budget included)
+     */
+    public List<BudgetLine> getBudgetLines() {
+        return budgetLines;
+    }
+
+    /**
+     * Whether there is a previous month to compare with
+     */
+    public boolean hasPrevious() {
+        return previous != null;
+    }
+
+    /**
+     * Income change from the previous month
+     */
+    public double getIncomeChange() {
+        return previous != null ? income - previous.income : 0;
+    }
+
+    /**
+     * Expense change from the previous month
+     */
+    public double getExpenseChange() {
+        return previous != null ? expense - previous.expense : 0;
+    }
+
+    /**
+     * Expense change of a category from the previous month
+     */
+    public double getCategoryChange(String category) {
+        double current = categoryExpenses.getOrDefault(category, 0.0);
+        return previous != null ? current - previous.categoryExpenses.getOrDefault(category, 0.0) : 0;
+    }
+
+    /**
+     * Budget vs. actual of one budget in the month
+     */
+    public static class BudgetLine {
+        private final String category;
+        private final double budgeted;
+        private final double actual;
+
+        public BudgetLine(String category, double budgeted, double actual) {
+            this.category = category;
+            this.budgeted = budgeted;
+            this.actual = actual;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * Budget amount for the month (recurring budgets are converted to a monthly amount)
+         */
+        public double getBudgeted() {
+            return budgeted;
+        }
+
+        public double getActual() {
+            return actual;
+        }
+
+        /**
+         * Budgeted minus actual (negative if overspent)
+         */
+        public double getVariance() {
+            return budgeted - actual;
+        }
+
+        public boolean isOverBudget() {
+            return actual > budgeted;
+        }
+    }
+}
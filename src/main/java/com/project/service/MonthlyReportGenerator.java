@@ -0,0 +1,283 @@
+package com.project.service;
+
+import com.project.model.Budget;
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates a report for every month of the ledger
+ * Month aggregates are computed in parallel with fork-join over month partitions and cached;
+ * only months touched by added, edited or deleted transactions are recomputed on the next run.
+ * Aggregation only reads the ledger through the service's lock, so it can run off the event
+ * thread; budget lines read the budget service and are added on the thread that updates it
+ */
+public class MonthlyReportGenerator {
+    // Months aggregated by one fork-join leaf
+    private static final int MONTHS_PER_TASK = 2;
+
+    private final TranscationService transactionService;
+    private final BudgetService budgetService;
+    private final ForkJoinPool pool;
+    // Guarded by this generator; runs of aggregate() are serialized
+    private final Map<Integer, MonthAggregate> cache = new HashMap<>();
+    // Marked on the thread that updates the transaction service while a run may be in progress
+    private final Set<Integer> dirtyMonths = ConcurrentHashMap.newKeySet();
+    // Months aggregated by the last run: dirty months plus months that were not cached yet
+    private volatile int lastRecomputedCount;
+
+    /**
+     * Constructor
+     */
+    public MonthlyReportGenerator(TranscationService transactionService, BudgetService budgetService) {
+        this(transactionService, budgetService, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with the pool the months are aggregated on
+     */
+    public MonthlyReportGenerator(TranscationService transactionService, BudgetService budgetService, ForkJoinPool pool) {
+        this.transactionService = transactionService;
+        this.budgetService = budgetService;
+        this.pool = pool;
+        transactionService.addObserver(new DirtyMonthListener());
+    }
+
+    /**
+     * Generate the reports of every month from the oldest to the most recent transaction
+     * Must be called on the thread that updates the budget service; use {@link #aggregate()}
+     * off that thread and {@link #addBudgetLines(List)} on it to keep the aggregation off the event thread
+     * @return Reports in month order, including months without transactions
+     */
+    public List<MonthlyReport> generate() {
+        return addBudgetLines(aggregate());
+    }
+
+    /**
+     * Aggregate every month from the oldest to the most recent transaction, without budget lines
+     * Safe to call from any thread; concurrent runs are serialized
+     * @return Reports in month order, including months without transactions
+     */
+    public synchronized List<MonthlyReport> aggregate() {
+        Date earliest = transactionService.getEarliestDate();
+        Date latest = transactionService.getLatestDate();
+        if (earliest == null) {
+            cache.clear();
+            dirtyMonths.clear();
+            lastRecomputedCount = 0;
+            return new ArrayList<>();
+        }
+
+        int firstMonth = DateKeys.yearMonth(earliest);
+        int lastMonth = DateKeys.yearMonth(latest);
+        cache.keySet().removeIf(month -> month < firstMonth || month > lastMonth);
+        dirtyMonths.removeIf(month -> month < firstMonth || month > lastMonth);
+
+        // Slice the months to recompute on this thread; the slices are only read in parallel.
+        // A month is unmarked before it is sliced, so a change landing during the run marks it again
+        List<Integer> months = new ArrayList<>();
+        List<List<Transcation>> slices = new ArrayList<>();
+        for (int month = firstMonth; month <= lastMonth; month++) {
+            boolean dirty = dirtyMonths.remove(month);
+            if (dirty || !cache.containsKey(month)) {
+                months.add(month);
+                slices.add(transactionService.getTransactionsByDateRange(DateKeys.startOfYearMonth(month), DateKeys.endOfYearMonth(month)));
+            }
+        }
+
+        lastRecomputedCount = months.size();
+        MonthAggregate[] aggregates = new MonthAggregate[months.size()];
+        if (!months.isEmpty()) {
+            pool.invoke(new AggregateTask(slices, aggregates, 0, aggregates.length));
+        }
+        for (int i = 0; i < aggregates.length; i++) {
+            cache.put(months.get(i), aggregates[i]);
+        }
+
+        List<MonthlyReport> reports = new ArrayList<>(lastMonth - firstMonth + 1);
+        MonthlyReport previous = null;
+        for (int month = firstMonth; month <= lastMonth; month++) {
+            MonthAggregate aggregate = cache.get(month);
+            previous = new MonthlyReport(month, aggregate.income, aggregate.expense, aggregate.transactionCount,
+                    aggregate.categoryExpenses, Collections.emptyList(), previous);
+            reports.add(previous);
+        }
+        return reports;
+    }
+
+    /**
+     * Add the budget lines to aggregated month reports
+     * Must be called on the thread that updates the budget service; costs one budget lookup per month
+     * @param months Reports from {@link #aggregate()}
+     * @return Reports with budget lines, in the same order
+     */
+    public List<MonthlyReport> addBudgetLines(List<MonthlyReport> months) {
+        List<MonthlyReport> reports = new ArrayList<>(months.size());
+        MonthlyReport previous = null;
+        for (MonthlyReport month : months) {
+            previous = new MonthlyReport(month.getYearMonth(), month.getIncome(), month.getExpense(),
+                    month.getTransactionCount(), month.getCategoryExpenses(), budgetLines(month), previous);
+            reports.add(previous);
+        }
+        return reports;
+    }
+
+    /**
+     * Number of cached months marked changed; months not cached yet are not included
+     */
+    public int getDirtyMonthCount() {
+        return dirtyMonths.size();
+    }
+
+    /**
+     * Number of months actually aggregated by the last call to {@link #generate()}
+     */
+    public int getLastRecomputedCount() {
+        return lastRecomputedCount;
+    }
+
+    /**
+     * Budget vs. actual of the budgets active in a month; budgets are not cached since they change independently
+     */
+    private List<MonthlyReport.BudgetLine> budgetLines(MonthlyReport report) {
+        int month = report.getYearMonth();
+        // Latest budget per category wins if several overlap the month
+        Map<String, Budget> budgets = new LinkedHashMap<>();
+        for (Budget budget : budgetService.getActiveBudgets(DateKeys.startOfYearMonth(month), DateKeys.endOfYearMonth(month))) {
+            budgets.put(budget.getCategory(), budget);
+        }
+
+        List<MonthlyReport.BudgetLine> lines = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets.values()) {
+            double actual = budget.isTotalBudget()
+                    ? report.getExpense()
+                    : report.getCategoryExpenses().getOrDefault(budget.getCategory(), 0.0);
+            lines.add(new MonthlyReport.BudgetLine(budget.getCategory(), monthlyAmount(budget, month), actual));
+        }
+        return lines;
+    }
+
+    /**
+     * Budget amount converted to one month
+     * A one-off budget with a start and end date is prorated by the share of its days that fall
+     * in the month (0 outside its range); without both dates it counts in full for every month
+     */
+    static double monthlyAmount(Budget budget, int yearMonth) {
+        switch (budget.getRecurrence()) {
+            case WEEKLY:
+                return budget.getAmount() * YearMonth.of(yearMonth / 12, yearMonth % 12 + 1).lengthOfMonth() / 7.0;
+            case MONTHLY:
+                return budget.getAmount();
+            case QUARTERLY:
+                return budget.getAmount() / 3;
+            case YEARLY:
+                return budget.getAmount() / 12;
+            default:
+                if (budget.getStartDate() == null || budget.getEndDate() == null) {
+                    return budget.getAmount();
+                }
+                long firstDay = DateKeys.epochDay(budget.getStartDate());
+                long lastDay = DateKeys.epochDay(budget.getEndDate());
+                long days = Math.max(lastDay - firstDay + 1, 1);
+                return budget.getAmount() * daysInMonth(budget, yearMonth) / days;
+        }
+    }
+
+    /**
+     * Check whether a budget applies to a month
+     * Recurring budgets and one-off budgets without both dates apply to every month,
+     * a one-off budget with a date range only to the months it overlaps
+     */
+    static boolean appliesTo(Budget budget, int yearMonth) {
+        return budget.isRecurring() || budget.getStartDate() == null || budget.getEndDate() == null
+                || daysInMonth(budget, yearMonth) > 0;
+    }
+
+    /**
+     * Number of days of a budget's date range that fall in a month
+     */
+    private static long daysInMonth(Budget budget, int yearMonth) {
+        long firstDay = Math.max(DateKeys.epochDay(budget.getStartDate()), DateKeys.epochDay(DateKeys.startOfYearMonth(yearMonth)));
+        long lastDay = Math.min(DateKeys.epochDay(budget.getEndDate()), DateKeys.epochDay(DateKeys.endOfYearMonth(yearMonth)));
+        return Math.max(lastDay - firstDay + 1, 0);
+    }
+
+    private static MonthAggregate aggregate(List<Transcation> transactions) {
+        MonthAggregate aggregate = new MonthAggregate();
+        for (Transcation transaction : transactions) {
+            aggregate.transactionCount++;
+            if (transaction.isIncome()) {
+                aggregate.income += transaction.getAmount();
+            } else {
+                aggregate.expense += transaction.getAmount();
+                aggregate.categoryExpenses.merge(transaction.getCategory(), transaction.getAmount(), Double::sum);
+            }
+        }
+        return aggregate;
+    }
+
+    /**
+     * Totals of one month
+     */
+    private static class MonthAggregate {
+        double income;
+        double expense;
+        int transactionCount;
+        final Map<String, Double> categoryExpenses = new TreeMap<>();
+    }
+
+    /**
+     * Aggregates a range of month slices, splitting it in halves until it is small
+     */
+    private static class AggregateTask extends RecursiveAction {
+        private final List<List<Transcation>> slices;
+        private final MonthAggregate[] results;
+        private final int from;
+        private final int to;
+
+        AggregateTask(List<List<Transcation>> slices, MonthAggregate[] results, int from, int to) {
+            this.slices = slices;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MONTHS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    results[i] = aggregate(slices.get(i));
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new AggregateTask(slices, results, from, mid), new AggregateTask(slices, results, mid, to));
+        }
+    }
+
+    /**
+     * Marks the months of changed transactions for recomputation
+     */
+    private class DirtyMonthListener implements TransactionObserver {
+        @Override
+        public void onTransactionDataChanged() {
+            // Months are marked by the fine-grained callbacks
+        }
+
+        @Override
+        public void onTransactionAdded(Transcation transaction) {
+            dirtyMonths.add(DateKeys.yearMonth(transaction.getDate()));
+        }
+
+        @Override
+        public void onTransactionRemoved(Transcation transaction) {
+            dirtyMonths.add(DateKeys.yearMonth(transaction.getDate()));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.service;
+
+import com.project.util.DateKeys;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the expenses of one month
+ */
+public class PeriodSpending {
+    private final int yearMonth;
+    private final long version;
+    private final double totalExpense;
+    private final Map<String, Double> categoryExpenses;
+
+    /**
+     * Constructor
+     * @param yearMonth Month number (see {@link DateKeys#yearMonth(Date)})
+     * @param version Version of the aggregates the snapshot was taken from
+     * @param totalExpense Expenses of all categories
+     * @param categoryExpenses Expenses per category
+     */
+    public PeriodSpending(int yearMonth, long version, double totalExpense, Map<String, Double> categoryExpenses) {
+        this.yearMonth = yearMonth;
+        this.version = version;
+        this.totalExpense = totalExpense;
+        this.categoryExpenses = Collections.unmodifiableMap(categoryExpenses);
+    }
+
+    public int getYearMonth() {
+        return yearMonth;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public double getTotalExpense() {
+        return totalExpense;
+    }
+
+    /**
+     * Get expenses per category, categories without spending are left out
+     */
+    public Map<String, Double> getCategoryExpenses() {
+        return categoryExpenses;
+    }
+
+    /**
+     * Get the expenses of one category
+     */
+    public double getCategoryExpense(String category) {
+        return categoryExpenses.getOrDefault(category, 0.0);
+    }
+}
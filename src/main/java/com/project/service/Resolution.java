@@ -0,0 +1,47 @@
+package com.project.service;
+
+import com.project.util.DateKeys;
+
+import java.time.LocalDate;
+
+/**
+ * Bucket sizes of the time rollups
+ * Buckets of one resolution have consecutive numbers, so a range of buckets is a range of keys
+ */
+public enum Resolution {
+    DAY, WEEK, MONTH, YEAR;
+
+    /**
+     * Bucket number containing an epoch day
+     * Weeks start on Monday; months use {@link DateKeys#yearMonthOfEpochDay(long)}
+     */
+    public long bucketOf(long epochDay) {
+        switch (this) {
+            case WEEK:
+                // 1970-01-01 was a Thursday, so Monday-aligned weeks are offset by three days
+                return Math.floorDiv(epochDay + 3, 7);
+            case MONTH:
+                return DateKeys.yearMonthOfEpochDay(epochDay);
+            case YEAR:
+                return LocalDate.ofEpochDay(epochDay).getYear();
+            default:
+                return epochDay;
+        }
+    }
+
+    /**
+     * First epoch day of a bucket
+     */
+    public long startOf(long bucket) {
+        switch (this) {
+            case WEEK:
+                return bucket * 7 - 3;
+            case MONTH:
+                return LocalDate.of((int) (bucket / 12), (int) (bucket % 12) + 1, 1).toEpochDay();
+            case YEAR:
+                return LocalDate.of((int) bucket, 1, 1).toEpochDay();
+            default:
+                return bucket;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable income and expense totals of a time window
+ */
+public class RollupTotals {
+    private final double income;
+    private final double expense;
+    private final int transactionCount;
+    private final Map<String, Double> categoryIncomes;
+    private final Map<String, Double> categoryExpenses;
+
+    /**
+     * Constructor
+     * @param income Income of the window
+     * @param expense Expenses of the window
+     * @param transactionCount Number of transactions in the window
+     * @param categoryIncomes Income per category
+     * @param categoryExpenses Expenses per category
+     */
+    public RollupTotals(double income, double expense, int transactionCount,
+                        Map<String, Double> categoryIncomes, Map<String, Double> categoryExpenses) {
+        this.income = income;
+        this.expense = expense;
+        this.transactionCount = transactionCount;
+        this.categoryIncomes = Collections.unmodifiableMap(categoryIncomes);
+        this.categoryExpenses = Collections.unmodifiableMap(categoryExpenses);
+    }
+
+    public double getIncome() {
+        return income;
+    }
+
+    public double getExpense() {
+        return expense;
+    }
+
+    public double getNet() {
+        return income - expense;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Get income per category, categories without income are left out
+     */
+    public Map<String, Double> getCategoryIncomes() {
+        return categoryIncomes;
+    }
+
+    /**
+     * Get expenses per category, categories without spending are left out
+     */
+    public Map<String, Double> getCategoryExpenses() {
+        return categoryExpenses;
+    }
+
+    /**
+     * Get the expenses of one category
+     */
+    public double getCategoryExpense(String category) {
+        return categoryExpenses.getOrDefault(category, 0.0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.service;
+
+import com.project.model.Budget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of replaying one budget set against the months of the ledger
+ */
+public class SimulationResult {
+    private final List<BudgetOutcome> outcomes;
+
+    public SimulationResult(List<BudgetOutcome> outcomes) {
+        this.outcomes = Collections.unmodifiableList(new ArrayList<>(outcomes));
+    }
+
+    /**
+     * Get the outcome of every budget of the set, in the order of the set
+     */
+    public List<BudgetOutcome> getBudgetOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Overspending of all budgets over all months
+     */
+    public double getTotalOverspend() {
+        double total = 0;
+        for (BudgetOutcome outcome : outcomes) {
+            total += outcome.getTotalOverspend();
+        }
+        return total;
+    }
+
+    /**
+     * Outcome of one budget over the replayed months
+     */
+    public static class BudgetOutcome {
+        private final Budget budget;
+        private final int monthsEvaluated;
+        private final int monthsExceeded;
+        private final double totalOverspend;
+        private final double maxOverspend;
+
+        public BudgetOutcome(Budget budget, int monthsEvaluated, int monthsExceeded, double totalOverspend, double maxOverspend) {
+            this.budget = budget;
+            this.monthsEvaluated = monthsEvaluated;
+            this.monthsExceeded = monthsExceeded;
+            this.totalOverspend = totalOverspend;
+            this.maxOverspend = maxOverspend;
+        }
+
+        public Budget getBudget() {
+            return budget;
+        }
+
+        public int getMonthsEvaluated() {
+            return monthsEvaluated;
+        }
+
+        public int getMonthsExceeded() {
+            return monthsExceeded;
+        }
+
+        /**
+         * Share of the months in which the budget would have been exceeded (0-100)
+         */
+        public double getExceededPercentage() {
+            return monthsEvaluated > 0 ? monthsExceeded * 100.0 / monthsEvaluated : 0;
+        }
+
+        public double getTotalOverspend() {
+            return totalOverspend;
+        }
+
+        /**
+         * Average overspending in the months the budget was exceeded
+         */
+        public double getAverageOverspend() {
+            return monthsExceeded > 0 ? totalOverspend / monthsExceeded : 0;
+        }
+
+        public double getMaxOverspend() {
+            return maxOverspend;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.service;
+
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+
+/**
+ * Expense aggregates shared by the budget service and the panels
+ * The counters are updated once per transaction change and bump a version; the current
+ * month snapshot is rebuilt at most once per version and handed to every reader
+ */
+public class SpendingAggregationService {
+    private final SpendingCounters counters = new SpendingCounters();
+    private long version;
+    private PeriodSpending currentMonth;
+
+    /**
+     * Constructor
+     */
+    public SpendingAggregationService(TranscationService transactionService) {
+        for (Transcation transaction : transactionService.getAllTransactions()) {
+            counters.add(transaction);
+        }
+        transactionService.addObserver(new CounterListener());
+    }
+
+    /**
+     * Get the number of transaction changes counted so far
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the expenses of the current month
+     * The snapshot is cached until a transaction changes or the month rolls over
+     */
+    public PeriodSpending getCurrentMonth() {
+        int yearMonth = DateKeys.currentYearMonth();
+        PeriodSpending snapshot = currentMonth;
+        if (snapshot == null || snapshot.getVersion() != version || snapshot.getYearMonth() != yearMonth) {
+            snapshot = new PeriodSpending(yearMonth, version, counters.getTotal(yearMonth), counters.getSpentByCategory(yearMonth));
+            currentMonth = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the expenses of a category in a month
+     */
+    public double getSpent(String category, int yearMonth) {
+        return counters.getSpent(category, yearMonth);
+    }
+
+    /**
+     * Get the expenses of all categories in a month
+     */
+    public double getTotal(int yearMonth) {
+        return counters.getTotal(yearMonth);
+    }
+
+    /**
+     * Keeps the counters in step with the transaction ledger
+     */
+    private class CounterListener implements TransactionObserver {
+        @Override
+        public void onTransactionDataChanged() {
+            // Counters are updated by the fine-grained callbacks
+        }
+
+        @Override
+        public void onTransactionAdded(Transcation transaction) {
+            counters.add(transaction);
+            version++;
+        }
+
+        @Override
+        public void onTransactionRemoved(Transcation transaction) {
+            counters.remove(transaction);
+            version++;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.service;
+
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Expense totals keyed by (category id, year-month), kept up to date on every transaction
+ * add, edit and delete, so spending of a category in a month is a single hash lookup
+ * Amounts are summed in cents to avoid drift from repeated add/subtract
+ */
+class SpendingCounters {
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private final Map<Integer, String> categoryNames = new HashMap<>();
+    // (categoryId << 32 | yearMonth) -> cents
+    private final Map<Long, long[]> categoryMonthCents = new HashMap<>();
+    // yearMonth -> cents over all categories
+    private final Map<Integer, long[]> monthCents = new HashMap<>();
+
+    /**
+     * Count a transaction (income is ignored)
+     */
+    void add(Transcation transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Remove a previously counted transaction
+     */
+    void remove(Transcation transaction) {
+        apply(transaction, -1);
+    }
+
+    /**
+     * Expenses of a category in a month
+     */
+    double getSpent(String category, int yearMonth) {
+        Integer categoryId = categoryIds.get(category);
+        if (categoryId == null) {
+            return 0;
+        }
+        long[] cents = categoryMonthCents.get(key(categoryId, yearMonth));
+        return cents == null ? 0 : cents[0] / 100.0;
+    }
+
+    /**
+     * Expenses of all categories in a month
+     */
+    double getTotal(int yearMonth) {
+        long[] cents = monthCents.get(yearMonth);
+        return cents == null ? 0 : cents[0] / 100.0;
+    }
+
+    /**
+     * Expenses per category in a month, categories without spending are left out
+     */
+    Map<String, Double> getSpentByCategory(int yearMonth) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<Integer, String> category : categoryNames.entrySet()) {
+            long[] cents = categoryMonthCents.get(key(category.getKey(), yearMonth));
+            if (cents != null && cents[0] != 0) {
+                result.put(category.getValue(), cents[0] / 100.0);
+            }
+        }
+        return result;
+    }
+
+    private void apply(Transcation transaction, int sign) {
+        if (transaction.isIncome()) {
+            return;
+        }
+
+        long cents = sign * Math.round(transaction.getAmount() * 100);
+        int yearMonth = DateKeys.yearMonth(transaction.getDate());
+
+        addCents(categoryMonthCents, key(categoryId(transaction.getCategory()), yearMonth), cents);
+        addCents(monthCents, yearMonth, cents);
+    }
+
+    /**
+     * Add to a counter, dropping it when it returns to zero so the maps only hold months with spending
+     */
+    private static <K> void addCents(Map<K, long[]> counters, K key, long cents) {
+        long[] counter = counters.computeIfAbsent(key, k -> new long[1]);
+        counter[0] += cents;
+        if (counter[0] == 0) {
+            counters.remove(key);
+        }
+    }
+
+    private int categoryId(String category) {
+        Integer id = categoryIds.get(category);
+        if (id == null) {
+            id = categoryIds.size();
+            categoryIds.put(category, id);
+            categoryNames.put(id, category);
+        }
+        return id;
+    }
+
+    private static long key(int categoryId, int yearMonth) {
+        return ((long) categoryId << 32) | (yearMonth & 0xffffffffL);
+    }
+}
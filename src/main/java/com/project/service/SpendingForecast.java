@@ -0,0 +1,50 @@
+package com.project.service;
+
+/**
+ * Projected spending at the end of a budget period
+ */
+public class SpendingForecast {
+    private static final double Z_95 = 1.96;
+
+    private final double actual;
+    private final double projected;
+    private final double standardDeviation;
+
+    /**
+     * Constructor
+     * @param actual Spending so far
+     * @param projected Expected spending at the end of the period
+     * @param standardDeviation Uncertainty of the projection
+     */
+    public SpendingForecast(double actual, double projected, double standardDeviation) {
+        this.actual = actual;
+        this.projected = projected;
+        this.standardDeviation = standardDeviation;
+    }
+
+    public double getActual() {
+        return actual;
+    }
+
+    public double getProjected() {
+        return projected;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    /**
+     * Lower end of the 95% range (never below what is already spent)
+     */
+    public double getLow() {
+        return Math.max(actual, projected - Z_95 * standardDeviation);
+    }
+
+    /**
+     * Upper end of the 95% range
+     */
+    public double getHigh() {
+        return projected + Z_95 * standardDeviation;
+    }
+}
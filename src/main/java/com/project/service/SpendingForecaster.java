@@ -0,0 +1,207 @@
+package com.project.service;
+
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Daily spending statistics per category and in total, updated in logarithmic time per transaction
+ * Keeps the expense of each day, Welford mean/variance over the days with spending and the
+ * spending per day of month; zero days are folded in when a forecast is made. A forecast costs
+ * a constant amount of work: days of month are counted in closed form instead of walking the calendar
+ */
+class SpendingForecaster {
+    // Weight of the overall daily mean when blending in a day-of-month mean
+    private static final double SEASONALITY_PRIOR_DAYS = 1.0;
+
+    private final Map<String, DailyStats> categoryStats = new HashMap<>();
+    private final DailyStats totalStats = new DailyStats();
+
+    /**
+     * Count a transaction (income is ignored)
+     */
+    void add(Transcation transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Remove a previously counted transaction
+     */
+    void remove(Transcation transaction) {
+        apply(transaction, -1);
+    }
+
+    /**
+     * Project the spending of a category (or of all categories if category is null) at the end of a period
+     * @param actual Spending in the period so far
+     * @param periodStartDay First day of the period (epoch day)
+     * @param periodEndDay Last day of the period (epoch day)
+     */
+    SpendingForecast forecast(String category, double actual, long periodStartDay, long periodEndDay) {
+        DailyStats stats = category == null ? totalStats : categoryStats.get(category);
+        long today = DateKeys.epochDay(new Date());
+        if (stats == null || stats.spendingDays == 0 || periodEndDay <= today || periodEndDay == Long.MAX_VALUE) {
+            return new SpendingForecast(actual, actual, 0);
+        }
+
+        // All days from the first spending to today are samples, including days without spending
+        long firstDay = stats.firstDay();
+        long days = Math.max(today - firstDay + 1, stats.spendingDays);
+        double sum = stats.mean * stats.spendingDays;
+        double dailyMean = sum / days;
+        // Chan's combination of the spending days with the zero days
+        double m2 = stats.m2 + stats.mean * stats.mean * stats.spendingDays * (days - stats.spendingDays) / days;
+        double dailyVariance = days > 1 ? m2 / (days - 1) : 0;
+
+        int[] history = occurrences(LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(today));
+        long firstRemainingDay = Math.max(today + 1, periodStartDay);
+        long remainingDays = periodEndDay - firstRemainingDay + 1;
+        int[] remaining = occurrences(LocalDate.ofEpochDay(firstRemainingDay), LocalDate.ofEpochDay(periodEndDay));
+        double expected = 0;
+        for (int dayOfMonth = 1; dayOfMonth <= 31; dayOfMonth++) {
+            if (remaining[dayOfMonth] == 0) {
+                continue;
+            }
+            // Shrink the day-of-month mean towards the overall mean when there are few months of history
+            expected += remaining[dayOfMonth] * (stats.dayOfMonthSum[dayOfMonth] + SEASONALITY_PRIOR_DAYS * dailyMean)
+                    / (history[dayOfMonth] + SEASONALITY_PRIOR_DAYS);
+        }
+
+        return new SpendingForecast(actual, actual + expected, Math.sqrt(remainingDays * dailyVariance));
+    }
+
+    private void apply(Transcation transaction, int sign) {
+        if (transaction.isIncome()) {
+            return;
+        }
+
+        long day = DateKeys.epochDay(transaction.getDate());
+        long cents = sign * Math.round(transaction.getAmount() * 100);
+        categoryStats.computeIfAbsent(transaction.getCategory(), c -> new DailyStats()).update(day, cents);
+        totalStats.update(day, cents);
+    }
+
+    /**
+     * Number of times each day of month occurs between two dates (inclusive)
+     * Counted from the number of months, Februaries, leap Februaries and 31-day months in the range,
+     * then corrected for the partial first and last month
+     */
+    static int[] occurrences(LocalDate from, LocalDate to) {
+        int[] counts = new int[32];
+        if (from.isAfter(to)) {
+            return counts;
+        }
+        long firstMonth = from.getYear() * 12L + from.getMonthValue() - 1;
+        long lastMonth = to.getYear() * 12L + to.getMonthValue() - 1;
+        long months = lastMonth - firstMonth + 1;
+        long februaries = monthsOfYear(firstMonth, lastMonth, 1);
+        long longMonths = 0;
+        for (int month : new int[]{0, 2, 4, 6, 7, 9, 11}) {
+            longMonths += monthsOfYear(firstMonth, lastMonth, month);
+        }
+        // Leap Februaries: years whose February lies in the range
+        long firstYear = Math.floorDiv(firstMonth - 1 + 11, 12);
+        long lastYear = Math.floorDiv(lastMonth - 1, 12);
+        long leapFebruaries = lastYear >= firstYear ? leapYears(lastYear) - leapYears(firstYear - 1) : 0;
+
+        for (int day = 1; day <= 31; day++) {
+            long count;
+            if (day <= 28) {
+                count = months;
+            } else if (day == 29) {
+                count = months - februaries + leapFebruaries;
+            } else if (day == 30) {
+                count = months - februaries;
+            } else {
+                count = longMonths;
+            }
+            if (day < from.getDayOfMonth()) {
+                count--;
+            }
+            if (day > to.getDayOfMonth() && day <= to.lengthOfMonth()) {
+                count--;
+            }
+            counts[day] = (int) count;
+        }
+        return counts;
+    }
+
+    /**
+     * Number of month keys (year * 12 + month - 1) in a range that fall on a given month of the year (0-11)
+     */
+    private static long monthsOfYear(long firstMonth, long lastMonth, int monthOfYear) {
+        return Math.floorDiv(lastMonth - monthOfYear, 12) - Math.floorDiv(firstMonth - 1 - monthOfYear, 12);
+    }
+
+    /**
+     * Number of leap years from year 1 up to a year (Gregorian rules)
+     */
+    private static long leapYears(long year) {
+        return Math.floorDiv(year, 4) - Math.floorDiv(year, 100) + Math.floorDiv(year, 400);
+    }
+
+    /**
+     * Spending statistics of one category
+     */
+    private static class DailyStats {
+        // Sorted, so the first spending day moves forward when its expenses are deleted
+        final NavigableMap<Long, long[]> dayCents = new TreeMap<>();
+        final double[] dayOfMonthSum = new double[32];
+        // Welford accumulators over the days with non-zero spending
+        long spendingDays;
+        double mean;
+        double m2;
+
+        void update(long day, long deltaCents) {
+            long[] cents = dayCents.computeIfAbsent(day, d -> new long[1]);
+            double before = cents[0] / 100.0;
+            cents[0] += deltaCents;
+            double after = cents[0] / 100.0;
+
+            // A day's total changed: take the old value out of the running statistics and put the new one in
+            if (before != 0) {
+                removeSample(before);
+            }
+            if (after != 0) {
+                addSample(after);
+            } else {
+                dayCents.remove(day);
+            }
+
+            dayOfMonthSum[LocalDate.ofEpochDay(day).getDayOfMonth()] += deltaCents / 100.0;
+        }
+
+        /**
+         * First day with spending; only called when there is at least one
+         */
+        long firstDay() {
+            return dayCents.firstKey();
+        }
+
+        private void addSample(double value) {
+            spendingDays++;
+            double delta = value - mean;
+            mean += delta / spendingDays;
+            m2 += delta * (value - mean);
+        }
+
+        private void removeSample(double value) {
+            if (spendingDays == 1) {
+                spendingDays = 0;
+                mean = 0;
+                m2 = 0;
+                return;
+            }
+            double oldMean = mean;
+            mean = (spendingDays * mean - value) / (spendingDays - 1);
+            m2 = Math.max(0, m2 - (value - oldMean) * (value - mean));
+            spendingDays--;
+        }
+    }
+}
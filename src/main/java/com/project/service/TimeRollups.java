@@ -0,0 +1,176 @@
+package com.project.service;
+
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+
+import java.util.*;
+
+/**
+ * Income and expense totals (overall and per category) per day, week, month and year, kept
+ * up to date on every transaction add, edit and delete
+ * A window of whole days is answered coarse to fine: the years it fully covers, then the
+ * months, weeks and days of the uncovered edges, so even a window of many years reads a few
+ * dozen buckets at most. Amounts are summed in cents to avoid drift from repeated add/subtract
+ */
+class TimeRollups {
+    // Coarsest first, the order windows are decomposed in
+    private static final Resolution[] LEVELS = {Resolution.YEAR, Resolution.MONTH, Resolution.WEEK, Resolution.DAY};
+
+    private final Map<Resolution, NavigableMap<Long, Bucket>> levels = new EnumMap<>(Resolution.class);
+
+    TimeRollups() {
+        for (Resolution resolution : Resolution.values()) {
+            levels.put(resolution, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Count a transaction
+     */
+    void add(Transcation transaction) {
+        apply(transaction, 1);
+    }
+
+    /**
+     * Remove a previously counted transaction
+     */
+    void remove(Transcation transaction) {
+        apply(transaction, -1);
+    }
+
+    private void apply(Transcation transaction, int sign) {
+        long day = DateKeys.epochDay(transaction.getDate());
+        for (Map.Entry<Resolution, NavigableMap<Long, Bucket>> level : levels.entrySet()) {
+            long key = level.getKey().bucketOf(day);
+            Bucket bucket = level.getValue().computeIfAbsent(key, k -> new Bucket());
+            bucket.apply(transaction, sign);
+            if (bucket.count == 0) {
+                level.getValue().remove(key);
+            }
+        }
+    }
+
+    /**
+     * Totals of the whole days from fromDay to toDay (inclusive); empty if fromDay is after toDay
+     */
+    Bucket sum(long fromDay, long toDay) {
+        Bucket total = new Bucket();
+        collect(0, fromDay, toDay, total);
+        return total;
+    }
+
+    /**
+     * Totals of all transactions
+     */
+    Bucket sumAll() {
+        Bucket total = new Bucket();
+        for (Bucket year : levels.get(Resolution.YEAR).values()) {
+            total.add(year);
+        }
+        return total;
+    }
+
+    /**
+     * Income or expense of consecutive buckets, zero for buckets without transactions
+     */
+    double[] series(Resolution resolution, long fromBucket, long toBucket, boolean income) {
+        double[] series = new double[(int) Math.max(toBucket - fromBucket + 1, 0)];
+        for (Map.Entry<Long, Bucket> entry : levels.get(resolution).subMap(fromBucket, true, toBucket, true).entrySet()) {
+            Bucket bucket = entry.getValue();
+            series[(int) (entry.getKey() - fromBucket)] = (income ? bucket.incomeCents : bucket.expenseCents) / 100.0;
+        }
+        return series;
+    }
+
+    /**
+     * Add the buckets of one level fully inside the window, then cover the edges with the next finer level
+     */
+    private void collect(int level, long fromDay, long toDay, Bucket total) {
+        if (fromDay > toDay) {
+            return;
+        }
+        Resolution resolution = LEVELS[level];
+        NavigableMap<Long, Bucket> buckets = levels.get(resolution);
+        if (resolution == Resolution.DAY) {
+            for (Bucket day : buckets.subMap(fromDay, true, toDay, true).values()) {
+                total.add(day);
+            }
+            return;
+        }
+
+        long first = resolution.bucketOf(fromDay);
+        if (resolution.startOf(first) < fromDay) {
+            first++;
+        }
+        long last = resolution.bucketOf(toDay);
+        if (resolution.startOf(last + 1) - 1 > toDay) {
+            last--;
+        }
+        if (first > last) {
+            collect(level + 1, fromDay, toDay, total);
+            return;
+        }
+
+        for (Bucket bucket : buckets.subMap(first, true, last, true).values()) {
+            total.add(bucket);
+        }
+        collect(level + 1, fromDay, resolution.startOf(first) - 1, total);
+        collect(level + 1, resolution.startOf(last + 1), toDay, total);
+    }
+
+    /**
+     * Totals of one bucket, also used to accumulate the totals of a window
+     */
+    static class Bucket {
+        long incomeCents;
+        long expenseCents;
+        int count;
+        final Map<String, long[]> categoryIncomeCents = new HashMap<>();
+        final Map<String, long[]> categoryExpenseCents = new HashMap<>();
+
+        void apply(Transcation transaction, int sign) {
+            long cents = sign * Math.round(transaction.getAmount() * 100);
+            count += sign;
+            if (transaction.isIncome()) {
+                incomeCents += cents;
+                addCents(categoryIncomeCents, transaction.getCategory(), cents);
+            } else {
+                expenseCents += cents;
+                addCents(categoryExpenseCents, transaction.getCategory(), cents);
+            }
+        }
+
+        void add(Bucket other) {
+            incomeCents += other.incomeCents;
+            expenseCents += other.expenseCents;
+            count += other.count;
+            for (Map.Entry<String, long[]> entry : other.categoryIncomeCents.entrySet()) {
+                addCents(categoryIncomeCents, entry.getKey(), entry.getValue()[0]);
+            }
+            for (Map.Entry<String, long[]> entry : other.categoryExpenseCents.entrySet()) {
+                addCents(categoryExpenseCents, entry.getKey(), entry.getValue()[0]);
+            }
+        }
+
+        RollupTotals toTotals() {
+            return new RollupTotals(incomeCents / 100.0, expenseCents / 100.0, count,
+                    toAmounts(categoryIncomeCents), toAmounts(categoryExpenseCents));
+        }
+
+        private static void addCents(Map<String, long[]> categories, String category, long cents) {
+            long[] total = categories.computeIfAbsent(category, c -> new long[1]);
+            total[0] += cents;
+            if (total[0] == 0) {
+                categories.remove(category);
+            }
+        }
+
+        private static Map<String, Double> toAmounts(Map<String, long[]> categoryCents) {
+            Map<String, Double> amounts = new HashMap<>();
+            for (Map.Entry<String, long[]> entry : categoryCents.entrySet()) {
+                amounts.put(entry.getKey(), entry.getValue()[0] / 100.0);
+            }
+            return amounts;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.service;
+
+import com.project.model.Transcation;
+
+import java.util.*;
+
+/**
+ * Secondary indexes over the ledger: per-category postings in date order and all
+ * transactions in amount order
+ * Single rows are placed by binary search; imported batches are merged in linear time
+ */
+class TransactionIndexes {
+    // Total order, so a stored transaction is found by binary search alone
+    private static final Comparator<Transcation> AMOUNT_ORDER = Comparator.comparingDouble(Transcation::getAmount)
+            .thenComparing(Transcation::getDate)
+            .thenComparingInt(Transcation::getId);
+    private static final Comparator<Transcation> DATE_ORDER = Comparator.comparing(Transcation::getDate);
+
+    private final Map<String, List<Transcation>> categoryPostings = new TreeMap<>();
+    private List<Transcation> amountOrder = new ArrayList<>();
+
+    /**
+     * Index one transaction
+     */
+    void add(Transcation transaction) {
+        List<Transcation> postings = categoryPostings.computeIfAbsent(transaction.getCategory(), c -> new ArrayList<>());
+        // After the equal dates, like the ledger
+        postings.add(upperBound(postings, transaction.getDate().getTime()), transaction);
+
+        int index = Collections.binarySearch(amountOrder, transaction, AMOUNT_ORDER);
+        amountOrder.add(index < 0 ? -index - 1 : index, transaction);
+    }
+
+    /**
+     * Index a batch of transactions
+     * @param batch Transactions sorted by date
+     */
+    void addAll(List<Transcation> batch) {
+        Map<String, List<Transcation>> byCategory = new HashMap<>();
+        for (Transcation transaction : batch) {
+            byCategory.computeIfAbsent(transaction.getCategory(), c -> new ArrayList<>()).add(transaction);
+        }
+        for (Map.Entry<String, List<Transcation>> entry : byCategory.entrySet()) {
+            List<Transcation> postings = categoryPostings.getOrDefault(entry.getKey(), new ArrayList<>());
+            categoryPostings.put(entry.getKey(), merge(postings, entry.getValue(), DATE_ORDER));
+        }
+
+        List<Transcation> byAmount = new ArrayList<>(batch);
+        byAmount.sort(AMOUNT_ORDER);
+        amountOrder = merge(amountOrder, byAmount, AMOUNT_ORDER);
+    }
+
+    /**
+     * Remove an indexed transaction
+     */
+    void remove(Transcation transaction) {
+        List<Transcation> postings = categoryPostings.get(transaction.getCategory());
+        if (postings != null) {
+            int index = lowerBound(postings, transaction.getDate().getTime());
+            while (index < postings.size() && postings.get(index) != transaction) {
+                index++;
+            }
+            if (index < postings.size()) {
+                postings.remove(index);
+            }
+            if (postings.isEmpty()) {
+                categoryPostings.remove(transaction.getCategory());
+            }
+        }
+
+        int index = Collections.binarySearch(amountOrder, transaction, AMOUNT_ORDER);
+        if (index >= 0) {
+            amountOrder.remove(index);
+        }
+    }
+
+    /**
+     * Transactions of a category, oldest first (empty if none)
+     */
+    List<Transcation> getCategory(String category) {
+        return categoryPostings.getOrDefault(category, Collections.emptyList());
+    }
+
+    /**
+     * Categories with at least one transaction, sorted by name
+     */
+    Set<String> getCategories() {
+        return categoryPostings.keySet();
+    }
+
+    /**
+     * All transactions by amount (ties by date, then id)
+     */
+    List<Transcation> getByAmount() {
+        return amountOrder;
+    }
+
+    /**
+     * Merge a sorted batch into a sorted list, existing rows first on ties
+     */
+    private static List<Transcation> merge(List<Transcation> existing, List<Transcation> batch, Comparator<Transcation> order) {
+        if (existing.isEmpty() || order.compare(batch.get(0), existing.get(existing.size() - 1)) >= 0) {
+            existing.addAll(batch);
+            return existing;
+        }
+
+        List<Transcation> merged = new ArrayList<>(existing.size() + batch.size());
+        int i = 0;
+        int j = 0;
+        while (i < existing.size() && j < batch.size()) {
+            if (order.compare(batch.get(j), existing.get(i)) >= 0) {
+                merged.add(existing.get(i++));
+            } else {
+                merged.add(batch.get(j++));
+            }
+        }
+        merged.addAll(existing.subList(i, existing.size()));
+        merged.addAll(batch.subList(j, batch.size()));
+        return merged;
+    }
+
+    private static int lowerBound(List<Transcation> list, long time) {
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).getDate().getTime() < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(List<Transcation> list, long time) {
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list.get(mid).getDate().getTime() <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -1,11 +1,81 @@
 package com.project.service;
 
+import com.project.model.Transcation;
+
+import java.util.List;
+
 /**
  * Interface for observing transaction data changes
+ * The fine-grained callbacks are delivered before {@link #onTransactionDataChanged()}
+ * Ledger position callbacks are only delivered when a change touches contiguous positions;
+ * other changes (e.g. an import merged into older dates) are only reported by onTransactionDataChanged
  */
 public interface TransactionObserver {
     /**
      * Called when transaction data has changed
      */
     void onTransactionDataChanged();
-}
\ No newline at end of file
+
+    /**
+     * Called when a transaction has been added
+     * @param transaction The added transaction
+     */
+    default void onTransactionAdded(Transcation transaction) {
+        // 默认空实现，可由实现类重写
+    }
+
+    /**
+     * Called when a batch of transactions has been imported
+     * @param transactions The added transactions
+     */
+    default void onTransactionsAdded(List<Transcation> transactions) {
+        for (Transcation transaction : transactions) {
+            onTransactionAdded(transaction);
+        }
+    }
+
+    /**
+     * Called when a transaction has been deleted
+     * @param transaction The deleted transaction
+     */
+    default void onTransactionRemoved(Transcation transaction) {
+        // 默认空实现，可由实现类重写
+    }
+
+    /**
+     * Called when a transaction has been replaced by an edited version
+     * @param oldTransaction The transaction before the edit
+     * @param newTransaction The transaction after the edit
+     */
+    default void onTransactionUpdated(Transcation oldTransaction, Transcation newTransaction) {
+        onTransactionRemoved(oldTransaction);
+        onTransactionAdded(newTransaction);
+    }
+
+    /**
+     * Called when transactions have been inserted into the date-ordered ledger
+     * @param fromIndex First position of the inserted range after the insertion (0 is the oldest transaction)
+     * @param toIndex Last position of the inserted range after the insertion
+     */
+    default void onLedgerRowsInserted(int fromIndex, int toIndex) {
+        // 默认空实现，可由实现类重写
+    }
+
+    /**
+     * Called when transactions have been removed from the date-ordered ledger
+     * @param fromIndex First position of the removed range before the removal
+     * @param toIndex Last position of the removed range before the removal
+     */
+    default void onLedgerRowsDeleted(int fromIndex, int toIndex) {
+        // 默认空实现，可由实现类重写
+    }
+
+    /**
+     * Called when transactions have been replaced in place in the date-ordered ledger
+     * @param fromIndex First position of the updated range
+     * @param toIndex Last position of the updated range
+     */
+    default void onLedgerRowsUpdated(int fromIndex, int toIndex) {
+        // 默认空实现，可由实现类重写
+    }
+}
@@ -1,18 +1,31 @@
 package com.project.service;
 
 import com.project.model.Transcation;
+import com.project.util.DateKeys;
+import com.project.util.DescriptionIndex;
+import com.project.util.FingerprintIndex;
 
-import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 /**
  * Transaction service handles transaction data business logic
+ * Reads may run on background threads; the ledger is guarded by a read-write lock and
+ * observers are notified on the updating thread after the write lock is released
  */
 public class TranscationService {
+    // Ledger kept in ascending date order (equal dates in insertion order)
     private List<Transcation> transactions;
     private int nextId;
     private List<TransactionObserver> observers = new ArrayList<>();
+    private FingerprintIndex fingerprints;
+    private Map<Integer, Transcation> transactionsById;
+    private TransactionIndexes indexes;
+    private DescriptionIndex descriptionIndex;
+    private TimeRollups rollups;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     /**
      * Constructor
@@ -20,7 +33,11 @@ public class TranscationService {
     public TranscationService() {
         this.transactions = new ArrayList<>();
         this.nextId = 1;
-
+        this.fingerprints = new FingerprintIndex();
+        this.transactionsById = new HashMap<>();
+        this.indexes = new TransactionIndexes();
+        this.descriptionIndex = new DescriptionIndex();
+        this.rollups = new TimeRollups();
     }
 
     /**
@@ -50,135 +67,511 @@ public class TranscationService {
      * Add a transaction
      */
     public void addTransaction(Transcation transaction) {
-        transaction.setId(nextId++);
-        transactions.add(transaction);
+        int index;
+        lock.writeLock().lock();
+        try {
+            transaction.setId(nextId++);
+            index = upperBound(transaction.getDate().getTime());
+            transactions.add(index, transaction);
+            fingerprints.add(FingerprintIndex.fingerprint(transaction));
+            transactionsById.put(transaction.getId(), transaction);
+            indexes.add(transaction);
+            indexDescription(transaction);
+            rollups.add(transaction);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (TransactionObserver observer : observers) {
+            observer.onTransactionAdded(transaction);
+            observer.onLedgerRowsInserted(index, index);
+        }
         notifyObservers();
     }
 
+    /**
+     * Replace an existing transaction (matched by ID) with an edited version
+     * @param transaction The edited transaction; must be a new instance, the stored one still holds the old values
+     */
+    public void updateTransaction(Transcation transaction) {
+        Transcation existing;
+        int oldIndex;
+        int newIndex;
+        lock.writeLock().lock();
+        try {
+            existing = transactionsById.get(transaction.getId());
+            if (existing == null) {
+                return;
+            }
+            if (existing == transaction) {
+                throw new IllegalArgumentException("Edited transaction must be a new instance");
+            }
+
+            oldIndex = positionOf(existing);
+            transactions.remove(oldIndex);
+            fingerprints.remove(FingerprintIndex.fingerprint(existing));
+            indexes.remove(existing);
+            unindexDescription(existing);
+            rollups.remove(existing);
+            newIndex = upperBound(transaction.getDate().getTime());
+            transactions.add(newIndex, transaction);
+            fingerprints.add(FingerprintIndex.fingerprint(transaction));
+            transactionsById.put(transaction.getId(), transaction);
+            indexes.add(transaction);
+            indexDescription(transaction);
+            rollups.add(transaction);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (TransactionObserver observer : observers) {
+            observer.onTransactionUpdated(existing, transaction);
+            if (oldIndex == newIndex) {
+                observer.onLedgerRowsUpdated(newIndex, newIndex);
+            } else {
+                observer.onLedgerRowsDeleted(oldIndex, oldIndex);
+                observer.onLedgerRowsInserted(newIndex, newIndex);
+            }
+        }
+        notifyObservers();
+    }
+
+    /**
+     * Delete a transaction
+     */
+    public void deleteTransaction(int transactionId) {
+        Transcation existing;
+        int index;
+        lock.writeLock().lock();
+        try {
+            existing = transactionsById.remove(transactionId);
+            if (existing == null) {
+                return;
+            }
+
+            index = positionOf(existing);
+            transactions.remove(index);
+            fingerprints.remove(FingerprintIndex.fingerprint(existing));
+            indexes.remove(existing);
+            unindexDescription(existing);
+            rollups.remove(existing);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (TransactionObserver observer : observers) {
+            observer.onTransactionRemoved(existing);
+            observer.onLedgerRowsDeleted(index, index);
+        }
+        notifyObservers();
+    }
+
+    /**
+     * Get a transaction by ID
+     */
+    public Transcation getTransactionById(int id) {
+        lock.readLock().lock();
+        try {
+            return transactionsById.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a batch of imported transactions, notifying observers once
+     * @param batch Transactions to add
+     * @param skipDuplicates If true, rows already in the ledger (or earlier in the same batch) are not added;
+     *                       if false they are added anyway and only counted
+     * @return Number of rows found to be duplicates
+     */
+    public int importTransactions(List<Transcation> batch, boolean skipDuplicates) {
+        int duplicates = 0;
+        List<Transcation> accepted = new ArrayList<>(batch.size());
+        int sizeBefore;
+        int sizeAfter;
+        boolean appended;
+
+        lock.writeLock().lock();
+        try {
+            for (Transcation transaction : batch) {
+                long fingerprint = FingerprintIndex.fingerprint(transaction);
+                if (fingerprints.contains(fingerprint)) {
+                    duplicates++;
+                    if (skipDuplicates) {
+                        continue;
+                    }
+                }
+                // Every row kept in the ledger counts once towards its fingerprint
+                fingerprints.add(fingerprint);
+                transaction.setId(nextId++);
+                transactionsById.put(transaction.getId(), transaction);
+                indexDescription(transaction);
+                rollups.add(transaction);
+                accepted.add(transaction);
+            }
+
+            sizeBefore = transactions.size();
+            appended = mergeSorted(accepted);
+            sizeAfter = transactions.size();
+            if (!accepted.isEmpty()) {
+                // mergeSorted left the batch in date order
+                indexes.addAll(accepted);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!accepted.isEmpty()) {
+            for (TransactionObserver observer : observers) {
+                observer.onTransactionsAdded(Collections.unmodifiableList(accepted));
+                if (appended) {
+                    observer.onLedgerRowsInserted(sizeBefore, sizeAfter - 1);
+                }
+            }
+        }
+        notifyObservers();
+        return duplicates;
+    }
+
+    /**
+     * Merge a batch into the date-ordered ledger in O(n + m)
+     * Batches newer than the whole ledger (the common case) are simply appended
+     * @return True if the batch was appended as one contiguous range
+     */
+    private boolean mergeSorted(List<Transcation> batch) {
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        // Imports are usually already in date order, so this sort is close to linear
+        batch.sort(Comparator.comparing(Transcation::getDate));
+
+        if (transactions.isEmpty() || !batch.get(0).getDate().before(transactions.get(transactions.size() - 1).getDate())) {
+            transactions.addAll(batch);
+            return true;
+        }
+
+        List<Transcation> merged = new ArrayList<>(transactions.size() + batch.size());
+        int i = 0;
+        int j = 0;
+        while (i < transactions.size() && j < batch.size()) {
+            // Existing rows go first on equal dates
+            if (!batch.get(j).getDate().before(transactions.get(i).getDate())) {
+                merged.add(transactions.get(i++));
+            } else {
+                merged.add(batch.get(j++));
+            }
+        }
+        merged.addAll(transactions.subList(i, transactions.size()));
+        merged.addAll(batch.subList(j, batch.size()));
+        transactions = merged;
+        return false;
+    }
+
+    private void indexDescription(Transcation transaction) {
+        descriptionIndex.add(transaction.getId(), transaction.getDate().getTime(), transaction.getDescription());
+    }
+
+    private void unindexDescription(Transcation transaction) {
+        descriptionIndex.remove(transaction.getId(), transaction.getDate().getTime(), transaction.getDescription());
+    }
+
+    /**
+     * Position of a stored transaction in the ledger
+     */
+    private int positionOf(Transcation transaction) {
+        int index = lowerBound(transaction.getDate().getTime());
+        while (transactions.get(index) != transaction) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Index of the first transaction dated at or after the given time
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = transactions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (transactions.get(mid).getDate().getTime() < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first transaction dated after the given time
+     */
+    private int upperBound(long time) {
+        int low = 0;
+        int high = transactions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (transactions.get(mid).getDate().getTime() <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Check whether a transaction with the same fingerprint already exists
+     */
+    public boolean isDuplicate(Transcation transaction) {
+        lock.readLock().lock();
+        try {
+            return fingerprints.contains(FingerprintIndex.fingerprint(transaction));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count rows of a batch that would be skipped as duplicates
+     * Rows repeated inside the batch itself count as duplicates too
+     */
+    public int countDuplicates(List<Transcation> batch) {
+        lock.readLock().lock();
+        try {
+            FingerprintIndex seen = new FingerprintIndex(batch.size());
+            int duplicates = 0;
+
+            for (Transcation transaction : batch) {
+                long fingerprint = FingerprintIndex.fingerprint(transaction);
+                if (fingerprints.contains(fingerprint) || !seen.add(fingerprint)) {
+                    duplicates++;
+                }
+            }
+
+            return duplicates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Get all transactions
      * @return Sorted list of transactions (most recent first)
      */
     public List<Transcation> getAllTransactions() {
-        // Return a sorted copy of the transactions (most recent first)
-        return transactions.stream()
-                .sorted(Comparator.comparing(Transcation::getDate).reversed())
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            // Ledger is already date-ordered, so a reversed copy is most recent first
+            List<Transcation> result = new ArrayList<>(transactions);
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of transactions
+     */
+    public int getTransactionCount() {
+        lock.readLock().lock();
+        try {
+            return transactions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a transaction by position without copying the ledger
+     * @param index Position in date order, 0 is the oldest transaction
+     */
+    public Transcation getTransactionAt(int index) {
+        lock.readLock().lock();
+        try {
+            return transactions.get(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the date of the oldest transaction
+     * @return The date, or null if there are no transactions
+     */
+    public Date getEarliestDate() {
+        lock.readLock().lock();
+        try {
+            return transactions.isEmpty() ? null : transactions.get(0).getDate();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the date of the most recent transaction
+     * @return The date, or null if there are no transactions
+     */
+    public Date getLatestDate() {
+        lock.readLock().lock();
+        try {
+            return transactions.isEmpty() ? null : transactions.get(transactions.size() - 1).getDate();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Get transactions by category
      */
     public List<Transcation> getTransactionsByCategory(String category) {
-        return transactions.stream()
-                .filter(t -> t.getCategory().equals(category))
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            // Answered from the category postings, already in date order
+            return new ArrayList<>(indexes.getCategory(category));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search transaction descriptions
+     * Every word of the query must start a word of the description (case and accents are ignored)
+     * @return Matching transactions, oldest first
+     */
+    public List<Transcation> searchByDescription(String query) {
+        lock.readLock().lock();
+        try {
+            int[] ids = descriptionIndex.search(query);
+            List<Transcation> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add(transactionsById.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the categories that have transactions, sorted by name
+     */
+    public List<String> getCategories() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(indexes.getCategories());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get all transactions ordered by amount, smallest first (ties by date)
+     * Answered from the amount index, no sorting involved
+     */
+    public List<Transcation> getTransactionsByAmount() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(indexes.getByAmount());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Get transactions by type
      */
     public List<Transcation> getTransactionsByType(boolean income) {
-        return transactions.stream()
-                .filter(t -> t.isIncome() == income)
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            return transactions.stream()
+                    .filter(t -> t.isIncome() == income)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Get transactions by date range
+     * Get transactions by date range (inclusive), oldest first
+     * Uses binary search on the date-ordered ledger, so only the range itself is copied
      */
     public List<Transcation> getTransactionsByDateRange(Date startDate, Date endDate) {
-        return transactions.stream()
-                .filter(t -> !t.getDate().before(startDate) && !t.getDate().after(endDate))
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(startDate.getTime());
+            int to = upperBound(endDate.getTime());
+            return from < to ? new ArrayList<>(transactions.subList(from, to)) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Get total income
      */
     public double getTotalIncome() {
-        return transactions.stream()
-                .filter(Transcation::isIncome)
-                .mapToDouble(Transcation::getAmount)
-                .sum();
+        lock.readLock().lock();
+        try {
+            return rollups.sumAll().incomeCents / 100.0;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Get total expense
      */
     public double getTotalExpense() {
-        return transactions.stream()
-                .filter(t -> !t.isIncome())
-                .mapToDouble(Transcation::getAmount)
-                .sum();
+        lock.readLock().lock();
+        try {
+            return rollups.sumAll().expenseCents / 100.0;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Get net balance
      */
     public double getNetBalance() {
-        return getTotalIncome() - getTotalExpense();
+        // Both totals are read under one lock so they come from the same ledger state
+        lock.readLock().lock();
+        try {
+            return getTotalIncome() - getTotalExpense();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
-     * Get monthly income data
-     * @return Map with month as key and total income as value, sorted by date
+     * Get the expense of every day between the oldest and the most recent transaction
+     * Read from the daily rollups, one lookup per day with transactions
      */
-    public Map<String, Double> getMonthlyIncome() {
-        // 使用特定的月份格式，确保可以按年月排序
-        SimpleDateFormat monthFormat = new SimpleDateFormat("yyyy-MM");
-
-        // 收集所有月份数据，用于确保图表显示时间连续性
-        Set<String> allMonths = new TreeSet<>();
-        Calendar cal = Calendar.getInstance();
-
-        // 找出最早和最晚的日期
-        Date earliestDate = null;
-        Date latestDate = null;
-
-        for (Transcation transaction : transactions) {
-            Date date = transaction.getDate();
-            if (earliestDate == null || date.before(earliestDate)) {
-                earliestDate = date;
-            }
-            if (latestDate == null || date.after(latestDate)) {
-                latestDate = date;
-            }
-        }
-
-        // 如果有交易数据，生成所有月份
-        if (earliestDate != null && latestDate != null) {
-            Calendar startCal = Calendar.getInstance();
-            startCal.setTime(earliestDate);
-            startCal.set(Calendar.DAY_OF_MONTH, 1);
-
-            Calendar endCal = Calendar.getInstance();
-            endCal.setTime(latestDate);
-            endCal.set(Calendar.DAY_OF_MONTH, 1);
-
-            while (!startCal.after(endCal)) {
-                allMonths.add(monthFormat.format(startCal.getTime()));
-                startCal.add(Calendar.MONTH, 1);
+    public DailyExpenses getDailyExpenses() {
+        lock.readLock().lock();
+        try {
+            if (transactions.isEmpty()) {
+                return new DailyExpenses(0, new double[0]);
             }
-        }
-
-        // 创建按月排序的收入数据
-        Map<String, Double> monthlyData = new TreeMap<>();
 
-        // 初始化所有月份的值为0
-        for (String month : allMonths) {
-            monthlyData.put(month, 0.0);
-        }
-
-        // 累加收入数据
-        for (Transcation transaction : transactions) {
-            if (transaction.isIncome()) {
-                String monthYear = monthFormat.format(transaction.getDate());
-                monthlyData.put(monthYear, monthlyData.getOrDefault(monthYear, 0.0) + transaction.getAmount());
-            }
+            long firstDay = DateKeys.epochDay(transactions.get(0).getDate());
+            long lastDay = DateKeys.epochDay(transactions.get(transactions.size() - 1).getDate());
+            return new DailyExpenses(firstDay, rollups.series(Resolution.DAY, firstDay, lastDay, false));
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
-        return monthlyData;
+    /**
+     * Get monthly income data
+     * @return Map with month as key and total income as value, sorted by date
+     */
+    public Map<String, Double> getMonthlyIncome() {
+        return getMonthlySeries(true);
     }
 
     /**
@@ -186,60 +579,83 @@ public class TranscationService {
      * @return Map with month as key and total expense as value, sorted by date
      */
     public Map<String, Double> getMonthlyExpenses() {
-        // 使用特定的月份格式，确保可以按年月排序
-        SimpleDateFormat monthFormat = new SimpleDateFormat("yyyy-MM");
-
-        // 收集所有月份数据，用于确保图表显示时间连续性
-        Set<String> allMonths = new TreeSet<>();
-        Calendar cal = Calendar.getInstance();
-
-        // 找出最早和最晚的日期
-        Date earliestDate = null;
-        Date latestDate = null;
+        return getMonthlySeries(false);
+    }
 
-        for (Transcation transaction : transactions) {
-            Date date = transaction.getDate();
-            if (earliestDate == null || date.before(earliestDate)) {
-                earliestDate = date;
-            }
-            if (latestDate == null || date.after(latestDate)) {
-                latestDate = date;
+    /**
+     * Income or expenses of every month from the oldest to the most recent transaction, read from the monthly rollups
+     */
+    private Map<String, Double> getMonthlySeries(boolean income) {
+        lock.readLock().lock();
+        try {
+            Map<String, Double> monthlyData = new TreeMap<>();
+            if (transactions.isEmpty()) {
+                return monthlyData;
             }
-        }
-
-        // 如果有交易数据，生成所有月份
-        if (earliestDate != null && latestDate != null) {
-            Calendar startCal = Calendar.getInstance();
-            startCal.setTime(earliestDate);
-            startCal.set(Calendar.DAY_OF_MONTH, 1);
 
-            Calendar endCal = Calendar.getInstance();
-            endCal.setTime(latestDate);
-            endCal.set(Calendar.DAY_OF_MONTH, 1);
-
-            while (!startCal.after(endCal)) {
-                allMonths.add(monthFormat.format(startCal.getTime()));
-                startCal.add(Calendar.MONTH, 1);
+            int firstMonth = DateKeys.yearMonth(transactions.get(0).getDate());
+            int lastMonth = DateKeys.yearMonth(transactions.get(transactions.size() - 1).getDate());
+            double[] amounts = rollups.series(Resolution.MONTH, firstMonth, lastMonth, income);
+            for (int i = 0; i < amounts.length; i++) {
+                monthlyData.put(DateKeys.formatYearMonth(firstMonth + i), amounts[i]);
             }
+            return monthlyData;
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
-        // 创建按月排序的支出数据
-        Map<String, Double> monthlyData = new TreeMap<>();
-
-        // 初始化所有月份的值为0
-        for (String month : allMonths) {
-            monthlyData.put(month, 0.0);
+    /**
+     * Get income and expense totals of all transactions, read from the yearly rollups
+     */
+    public RollupTotals getTotals() {
+        lock.readLock().lock();
+        try {
+            return rollups.sumAll().toTotals();
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
-        // 累加支出数据
-        for (Transcation transaction : transactions) {
-            if (!transaction.isIncome()) {
-                String monthYear = monthFormat.format(transaction.getDate());
-                monthlyData.put(monthYear, monthlyData.getOrDefault(monthYear, 0.0) + transaction.getAmount());
+    /**
+     * Get income and expense totals of a time window
+     * Whole days are read from the rollups (a few dozen buckets at most, however long the window);
+     * only the transactions of a partially covered first or last day are read from the ledger
+     * @param startDate Window start (inclusive)
+     * @param endDate Window end (inclusive)
+     */
+    public RollupTotals getTotals(Date startDate, Date endDate) {
+        lock.readLock().lock();
+        try {
+            long startDay = DateKeys.epochDay(startDate);
+            long endDay = DateKeys.epochDay(endDate);
+            long firstWholeDay = startDate.getTime() == DateKeys.startOfEpochDay(startDay).getTime() ? startDay : startDay + 1;
+            long lastWholeDay = endDate.getTime() >= DateKeys.startOfEpochDay(endDay + 1).getTime() - 1 ? endDay : endDay - 1;
+
+            if (firstWholeDay > lastWholeDay) {
+                // Less than two days without a whole day in between
+                TimeRollups.Bucket totals = new TimeRollups.Bucket();
+                addLedgerRange(startDate.getTime(), endDate.getTime(), totals);
+                return totals.toTotals();
             }
+
+            TimeRollups.Bucket totals = rollups.sum(firstWholeDay, lastWholeDay);
+            addLedgerRange(startDate.getTime(), DateKeys.startOfEpochDay(firstWholeDay).getTime() - 1, totals);
+            addLedgerRange(DateKeys.startOfEpochDay(lastWholeDay + 1).getTime(), endDate.getTime(), totals);
+            return totals.toTotals();
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
-        return monthlyData;
+    /**
+     * Add the transactions between two instants (inclusive) to a total
+     */
+    private void addLedgerRange(long fromTime, long toTime, TimeRollups.Bucket totals) {
+        int to = upperBound(toTime);
+        for (int i = lowerBound(fromTime); i < to; i++) {
+            totals.apply(transactions.get(i), 1);
+        }
     }
 
 }
\ No newline at end of file
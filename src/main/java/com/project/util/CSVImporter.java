@@ -3,24 +3,39 @@ package com.project.util;
 import com.project.model.Transcation;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * CSV Import Utility
  */
 public class CSVImporter {
 
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     /**
-     * Import transactions from a CSV file
-     * Expected CSV format: Date,Amount,Type,Category,Description
+     * Import transactions from a CSV file (plain, .csv.gz or .zip of CSV files)
+     * The header row is matched against the known {@link CSVProfile}s to build a column plan;
+     * files with an unrecognized header fall back to Date,Amount,Type,Category,Description
      *
      * @param filePath Path to the CSV file
      * @return List of imported transactions
@@ -28,56 +43,252 @@ public class CSVImporter {
      * @throws ParseException If there's an error parsing the CSV data
      */
     public List<Transcation> importTransactions(String filePath) throws IOException, ParseException {
-        List<Transcation> transactions = new ArrayList<>();
+        return importTransactions(filePath, null);
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            boolean isHeader = true;
+    /**
+     * Import transactions from a CSV file using a specific bank profile
+     *
+     * @param filePath Path to the CSV file
+     * @param profile Profile to map the header with, or null to detect it
+     * @return List of imported transactions
+     * @throws IOException If there's an error reading the file
+     * @throws ParseException If the header does not fit the profile or there's an error parsing the CSV data
+     */
+    public List<Transcation> importTransactions(String filePath, CSVProfile profile) throws IOException, ParseException {
+        ImportSummary summary = new ImportSummary();
+        readFile(filePath, profile, summary, null);
+        return summary.getTransactions();
+    }
 
-            while ((line = reader.readLine()) != null) {
-                // Skip header row
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
+    /**
+     * Import transactions from a CSV file without stopping at bad rows
+     * Rows that are too short or have an invalid amount or date are streamed to the reject file
+     * with their line number and reason, and the rest of the file is still imported
+     *
+     * @param filePath Path to the CSV file
+     * @param profile Profile to map the header with, or null to detect it
+     * @param rejectFilePath Path of the reject file (only created if a row is rejected), or null to just count
+     * @return Summary of accepted transactions and rejected rows
+     * @throws IOException If there's an error reading the file or writing the reject file
+     */
+    public ImportSummary importTransactionsTolerant(String filePath, CSVProfile profile, String rejectFilePath) throws IOException {
+        ImportSummary summary = new ImportSummary();
+
+        try (RejectWriter rejects = new RejectWriter(rejectFilePath)) {
+            readFile(filePath, profile, summary, rejects);
+            if (rejects.isOpen()) {
+                summary.setRejectFilePath(rejectFilePath);
+            }
+        } catch (ParseException e) {
+            // Only thrown in strict mode
+            throw new IllegalStateException(e);
+        }
+
+        return summary;
+    }
+
+    /**
+     * Import several CSV files concurrently, each parsed by its own worker thread
+     * The per-file results are merged into one list ordered by date so they can be committed
+     * as a single batch; wall time is close to that of the largest file
+     *
+     * @param filePaths Paths of the CSV files (plain, .csv.gz or .zip)
+     * @param profile Profile to map the headers with, or null to detect it per file
+     * @param rejectSuffix Suffix appended to each file path to name its reject file, or null to just count
+     * @return Merged summary of all files
+     * @throws IOException If a file cannot be read
+     */
+    public ImportSummary importFiles(List<String> filePaths, CSVProfile profile, String rejectSuffix) throws IOException {
+        int threads = Math.max(1, Math.min(filePaths.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "csv-import");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-                // Parse CSV line
-                String[] values = parseCSVLine(line);
+        List<ImportSummary> parts = new ArrayList<>();
+        try {
+            List<Future<ImportSummary>> futures = new ArrayList<>();
+            for (String filePath : filePaths) {
+                String rejectFilePath = rejectSuffix != null ? filePath + rejectSuffix : null;
+                futures.add(executor.submit(() -> {
+                    ImportSummary part = importTransactionsTolerant(filePath, profile, rejectFilePath);
+                    // Exports are usually already in date order, so this sort is close to linear
+                    part.getTransactions().sort(Comparator.comparing(Transcation::getDate));
+                    return part;
+                }));
+            }
+
+            for (Future<ImportSummary> future : futures) {
+                parts.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ImportSummary summary = new ImportSummary();
+        List<List<Transcation>> sortedRuns = new ArrayList<>();
+        for (ImportSummary part : parts) {
+            summary.addCounts(part);
+            sortedRuns.add(part.getTransactions());
+        }
+        for (Transcation transaction : mergeByDate(sortedRuns)) {
+            summary.accept(transaction);
+        }
+
+        return summary;
+    }
+
+    /**
+     * K-way merge of date-sorted runs into one date-sorted list
+     */
+    private List<Transcation> mergeByDate(List<List<Transcation>> runs) {
+        int total = 0;
+        for (List<Transcation> run : runs) {
+            total += run.size();
+        }
+        List<Transcation> merged = new ArrayList<>(total);
+
+        // Queue entries are {run, position}, ordered by the date at that position
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                Comparator.comparing((int[] head) -> runs.get(head[0]).get(head[1]).getDate())
+                        .thenComparingInt(head -> head[0]));
+        for (int i = 0; i < runs.size(); i++) {
+            if (!runs.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<Transcation> run = runs.get(head[0]);
+            merged.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heads.add(head);
+            }
+        }
+
+        return merged;
+    }
 
-                if (values.length >= 5) {
-                    Transcation transaction = new Transcation();
+    /**
+     * Read a plain, gzipped (.gz) or zipped (.zip) CSV file into the summary
+     * Compressed input is inflated on a background thread while rows are parsed on this one;
+     * every .csv entry of a zip is read with its own header into the same summary
+     */
+    private void readFile(String filePath, CSVProfile profile,
+                          ImportSummary summary, RejectWriter rejects) throws IOException, ParseException {
+        String lowerPath = filePath.toLowerCase(Locale.ROOT);
 
-                    // Parse date (format: yyyy-MM-dd HH:mm:ss)
-                    try {
-                        transaction.setDate(DATE_FORMAT.parse(values[0]));
-                    } catch (ParseException e) {
-                        // If date format is incorrect, use current date
-                        transaction.setDate(new Date());
+        if (lowerPath.endsWith(".zip")) {
+            try (ZipFile zipFile = new ZipFile(filePath)) {
+                for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                    String name = entry.getName();
+                    // Skip folders, non-CSV entries and macOS resource forks
+                    if (entry.isDirectory() || !name.toLowerCase(Locale.ROOT).endsWith(".csv") || name.startsWith("__MACOSX/")) {
+                        continue;
                     }
 
-                    // Parse amount
-                    try {
-                        transaction.setAmount(Double.parseDouble(values[1]));
-                    } catch (NumberFormatException e) {
-                        throw new ParseException("Invalid amount value: " + values[1], 0);
+                    try (PipelinedLineReader reader = new PipelinedLineReader(
+                            new InputStreamReader(zipFile.getInputStream(entry)), name)) {
+                        readRows(reader::readLine, filePath + "!" + name, profile, summary, rejects);
                     }
+                }
+            }
+        } else if (lowerPath.endsWith(".gz")) {
+            try (PipelinedLineReader reader = new PipelinedLineReader(
+                    new InputStreamReader(new GZIPInputStream(new FileInputStream(filePath), 64 * 1024)),
+                    new File(filePath).getName())) {
+                readRows(reader::readLine, filePath, profile, summary, rejects);
+            }
+        } else {
+            try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+                readRows(reader::readLine, filePath, profile, summary, rejects);
+            }
+        }
+    }
 
-                    // Parse type (income/expense)
-                    String type = values[2].trim().toLowerCase();
-                    transaction.setIncome(type.equals("income"));
+    /**
+     * Read the header and all rows of one CSV source into the summary
+     * In strict mode (no reject writer) a bad amount aborts the import and short rows are skipped;
+     * otherwise every bad row is rejected and reading continues
+     */
+    private void readRows(LineSource reader, String source, CSVProfile profile,
+                          ImportSummary summary, RejectWriter rejects) throws IOException, ParseException {
+        String line = reader.readLine();
+        if (line == null) {
+            return;
+        }
 
-                    // Parse category
-                    transaction.setCategory(values[3].trim());
+        // Resolve the column plan once from the header row
+        ColumnPlan plan;
+        try {
+            plan = createPlan(parseCSVLine(line), profile);
+        } catch (ParseException e) {
+            if (rejects == null) {
+                throw e;
+            }
+            summary.reject(source, 1, e.getMessage());
+            rejects.write(source, 1, e.getMessage(), line);
+            return;
+        }
+
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            // Parse CSV line
+            String[] values = parseCSVLine(line);
 
-                    // Parse description
-                    transaction.setDescription(values[4].trim());
+            if (!plan.accepts(values)) {
+                if (rejects != null && !line.trim().isEmpty()) {
+                    String reason = "Expected at least " + plan.getMinColumns() + " fields but found " + values.length;
+                    summary.reject(source, lineNumber, reason);
+                    rejects.write(source, lineNumber, reason, line);
+                }
+                continue;
+            }
 
-                    transactions.add(transaction);
+            try {
+                summary.accept(plan.apply(values, rejects != null));
+            } catch (ParseException e) {
+                if (rejects == null) {
+                    throw new ParseException(e.getMessage() + " (line " + lineNumber + ")", (int) lineNumber);
                 }
+                summary.reject(source, lineNumber, e.getMessage());
+                rejects.write(source, lineNumber, e.getMessage(), line);
             }
         }
+    }
 
-        return transactions;
+    /**
+     * Build the column plan for a header row
+     *
+     * @param header Parsed header row
+     * @param profile Profile to use, or null to detect it
+     * @return The column plan
+     * @throws ParseException If the header does not fit the requested profile
+     */
+    public ColumnPlan createPlan(String[] header, CSVProfile profile) throws ParseException {
+        if (profile != null) {
+            ColumnPlan plan = ColumnPlan.fromHeader(header, profile);
+            if (plan == null) {
+                throw new ParseException("CSV header does not match profile " + profile.getName(), 0);
+            }
+            return plan;
+        }
+
+        ColumnPlan plan = ColumnPlan.fromHeader(header);
+        return plan != null ? plan : ColumnPlan.positional();
     }
 
     /**
@@ -86,7 +297,7 @@ public class CSVImporter {
      * @param line 要解析的CSV行
      * @return CSV行中的值数组
      */
-    private String[] parseCSVLine(String line) {
+    public String[] parseCSVLine(String line) {
         List<String> result = new ArrayList<>();
         StringBuilder currentValue = new StringBuilder();
         boolean inQuotes = false;
@@ -105,4 +316,52 @@ public class CSVImporter {
         result.add(currentValue.toString());
         return result.toArray(new String[0]);
     }
-}
\ No newline at end of file
+
+    /**
+     * Source of text lines (plain or pipelined reader)
+     */
+    private interface LineSource {
+        String readLine() throws IOException;
+    }
+
+    /**
+     * Writer for rejected rows, opened on the first rejected row
+     * Format: Source,Line,Reason,Row
+     */
+    private static class RejectWriter implements Closeable {
+        private final String path;
+        private BufferedWriter writer;
+
+        RejectWriter(String path) {
+            this.path = path;
+        }
+
+        void write(String source, long lineNumber, String reason, String row) throws IOException {
+            if (path == null) {
+                return;
+            }
+            if (writer == null) {
+                writer = new BufferedWriter(new FileWriter(path));
+                writer.write("Source,Line,Reason,Row");
+                writer.newLine();
+            }
+            writer.write(quote(source) + "," + lineNumber + "," + quote(reason) + "," + quote(row));
+            writer.newLine();
+        }
+
+        boolean isOpen() {
+            return writer != null;
+        }
+
+        private static String quote(String value) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
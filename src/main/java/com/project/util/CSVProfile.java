@@ -0,0 +1,163 @@
+package com.project.util;
+
+import java.util.*;
+
+/**
+ * Named CSV layout for one family of bank exports
+ * A profile lists the header names accepted for each logical field and the date patterns
+ * the bank uses; the header of a file is resolved against it once into a {@link ColumnPlan}
+ */
+public class CSVProfile {
+
+    /**
+     * Logical fields a CSV column can map to
+     */
+    public enum Field {
+        DATE, TIME, AMOUNT, DEBIT, CREDIT, TYPE, CATEGORY, DESCRIPTION
+    }
+
+    /**
+     * Application's own export format: Date,Amount,Type,Category,Description
+     * Every column is required, so rows need all five fields as before header mapping
+     */
+    public static final CSVProfile DEFAULT = new CSVProfile("Default",
+            EnumSet.of(Field.DATE, Field.AMOUNT, Field.TYPE, Field.CATEGORY, Field.DESCRIPTION),
+            "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm", "yyyy-MM-dd", "yyyy/MM/dd HH:mm:ss", "yyyy/MM/dd");
+
+    /**
+     * Bank statements with separate debit (expense) and credit (income) columns
+     */
+    public static final CSVProfile DEBIT_CREDIT = new CSVProfile("Debit/Credit",
+            EnumSet.of(Field.DATE, Field.DEBIT, Field.CREDIT),
+            "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd", "dd/MM/yyyy HH:mm:ss", "dd/MM/yyyy", "MM/dd/yyyy");
+
+    /**
+     * Bank statements with separate date and time columns and a signed amount (negative = expense)
+     */
+    public static final CSVProfile SIGNED_AMOUNT = new CSVProfile("Signed Amount",
+            EnumSet.of(Field.DATE, Field.TIME, Field.AMOUNT),
+            "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm", "dd/MM/yyyy HH:mm:ss", "dd/MM/yyyy HH:mm", "MM/dd/yyyy HH:mm:ss");
+
+    private static final List<CSVProfile> PROFILES = new ArrayList<>(
+            Arrays.asList(DEFAULT, DEBIT_CREDIT, SIGNED_AMOUNT));
+
+    // Header names accepted for each field (normalized: lower case, no spaces/underscores)
+    private static final Map<Field, Set<String>> ALIASES = new EnumMap<>(Field.class);
+
+    static {
+        ALIASES.put(Field.DATE, aliases("date", "transactiondate", "bookingdate", "postingdate", "valuedate", "交易日期", "日期"));
+        ALIASES.put(Field.TIME, aliases("time", "transactiontime", "交易时间", "时间"));
+        ALIASES.put(Field.AMOUNT, aliases("amount", "value", "transactionamount", "金额"));
+        ALIASES.put(Field.DEBIT, aliases("debit", "withdrawal", "withdrawals", "moneyout", "paidout", "支出"));
+        ALIASES.put(Field.CREDIT, aliases("credit", "deposit", "deposits", "moneyin", "paidin", "收入"));
+        ALIASES.put(Field.TYPE, aliases("type", "transactiontype", "direction", "类型", "收支"));
+        ALIASES.put(Field.CATEGORY, aliases("category", "分类", "类别"));
+        ALIASES.put(Field.DESCRIPTION, aliases("description", "memo", "details", "narrative", "payee", "reference", "备注", "说明"));
+    }
+
+    private final String name;
+    private final Set<Field> requiredFields;
+    private final List<String> datePatterns;
+
+    /**
+     * Constructor
+     * @param name Display name of the profile
+     * @param requiredFields Fields the header must contain for this profile to apply; must include
+     *                       AMOUNT, or both DEBIT and CREDIT, so every row has an amount source
+     * @param datePatterns SimpleDateFormat patterns tried in order for the date (plus time) value
+     * @throws IllegalArgumentException If the required fields name no amount source
+     */
+    public CSVProfile(String name, Set<Field> requiredFields, String... datePatterns) {
+        if (!requiredFields.contains(Field.AMOUNT)
+                && !(requiredFields.contains(Field.DEBIT) && requiredFields.contains(Field.CREDIT))) {
+            throw new IllegalArgumentException("Profile " + name + " must require AMOUNT, or both DEBIT and CREDIT");
+        }
+        this.name = name;
+        this.requiredFields = Collections.unmodifiableSet(EnumSet.copyOf(requiredFields));
+        this.datePatterns = Collections.unmodifiableList(Arrays.asList(datePatterns));
+    }
+
+    /**
+     * Register an additional bank profile, checked before the built-in ones
+     */
+    public static synchronized void register(CSVProfile profile) {
+        PROFILES.add(0, profile);
+    }
+
+    /**
+     * Get all known profiles in matching order
+     */
+    public static synchronized List<CSVProfile> getProfiles() {
+        return new ArrayList<>(PROFILES);
+    }
+
+    /**
+     * Find the first profile whose required fields are all present in the header
+     * @return The matching profile, or null if none matches
+     */
+    public static CSVProfile detect(String[] header) {
+        for (CSVProfile profile : getProfiles()) {
+            if (profile.matches(header)) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether all required fields of this profile are present in the header
+     */
+    public boolean matches(String[] header) {
+        Map<Field, Integer> columns = resolveColumns(header);
+        return columns.keySet().containsAll(requiredFields);
+    }
+
+    /**
+     * Map each field to its column index in the header (first matching column wins)
+     */
+    static Map<Field, Integer> resolveColumns(String[] header) {
+        Map<Field, Integer> columns = new EnumMap<>(Field.class);
+        for (int i = 0; i < header.length; i++) {
+            String key = normalizeHeader(header[i]);
+            for (Map.Entry<Field, Set<String>> entry : ALIASES.entrySet()) {
+                if (entry.getValue().contains(key) && !columns.containsKey(entry.getKey())) {
+                    columns.put(entry.getKey(), i);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String normalizeHeader(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // Skip byte order mark, whitespace and separators
+            if (c != '\uFEFF' && !Character.isWhitespace(c) && c != '_' && c != '-' && c != '"') {
+                builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static Set<String> aliases(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<Field> getRequiredFields() {
+        return requiredFields;
+    }
+
+    public List<String> getDatePatterns() {
+        return datePatterns;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,203 @@
+package com.project.util;
+
+import com.project.model.Transcation;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column plan resolved once per CSV file from its header and a {@link CSVProfile}
+ * Applying the plan to a row is plain array indexing; no header lookups happen per row
+ */
+public class ColumnPlan {
+    private static final String DEFAULT_CATEGORY = "Other";
+
+    private final CSVProfile profile;
+    private final int dateColumn;
+    private final int timeColumn;
+    private final int amountColumn;
+    private final int debitColumn;
+    private final int creditColumn;
+    private final int typeColumn;
+    private final int categoryColumn;
+    private final int descriptionColumn;
+    private final int minColumns;
+
+    private final SimpleDateFormat[] dateFormats;
+    // Index of the date pattern that parsed the last row; tried first on the next row
+    private int lastDateFormat;
+
+    private ColumnPlan(CSVProfile profile, Map<CSVProfile.Field, Integer> columns) {
+        this.profile = profile;
+        this.dateColumn = columns.getOrDefault(CSVProfile.Field.DATE, -1);
+        this.timeColumn = columns.getOrDefault(CSVProfile.Field.TIME, -1);
+        this.amountColumn = columns.getOrDefault(CSVProfile.Field.AMOUNT, -1);
+        this.debitColumn = columns.getOrDefault(CSVProfile.Field.DEBIT, -1);
+        this.creditColumn = columns.getOrDefault(CSVProfile.Field.CREDIT, -1);
+        this.typeColumn = columns.getOrDefault(CSVProfile.Field.TYPE, -1);
+        this.categoryColumn = columns.getOrDefault(CSVProfile.Field.CATEGORY, -1);
+        this.descriptionColumn = columns.getOrDefault(CSVProfile.Field.DESCRIPTION, -1);
+
+        // A row must reach every column the profile requires, and the amount columns apply() reads
+        int max = 0;
+        for (CSVProfile.Field field : profile.getRequiredFields()) {
+            max = Math.max(max, columns.get(field) + 1);
+        }
+        if (amountColumn >= 0) {
+            max = Math.max(max, amountColumn + 1);
+        } else {
+            max = Math.max(max, Math.max(debitColumn, creditColumn) + 1);
+        }
+        this.minColumns = max;
+
+        List<String> patterns = profile.getDatePatterns();
+        this.dateFormats = new SimpleDateFormat[patterns.size()];
+        for (int i = 0; i < patterns.size(); i++) {
+            dateFormats[i] = new SimpleDateFormat(patterns.get(i));
+            dateFormats[i].setLenient(false);
+        }
+    }
+
+    /**
+     * Resolve a plan from a parsed header row, detecting the profile
+     * @return The plan, or null if no known profile matches the header
+     */
+    public static ColumnPlan fromHeader(String[] header) {
+        CSVProfile profile = CSVProfile.detect(header);
+        return profile != null ? new ColumnPlan(profile, CSVProfile.resolveColumns(header)) : null;
+    }
+
+    /**
+     * Resolve a plan from a parsed header row for a specific profile
+     * @return The plan, or null if the header lacks fields the profile requires
+     */
+    public static ColumnPlan fromHeader(String[] header, CSVProfile profile) {
+        return profile.matches(header) ? new ColumnPlan(profile, CSVProfile.resolveColumns(header)) : null;
+    }
+
+    /**
+     * Positional plan for files whose header matches no profile: Date,Amount,Type,Category,Description
+     * The first line is still consumed as the header, so files without a header row lose their first row
+     */
+    public static ColumnPlan positional() {
+        return fromHeader(new String[]{"Date", "Amount", "Type", "Category", "Description"}, CSVProfile.DEFAULT);
+    }
+
+    /**
+     * Check whether a row has enough columns for this plan
+     */
+    public boolean accepts(String[] values) {
+        return values.length >= minColumns;
+    }
+
+    /**
+     * Number of columns a row needs for this plan
+     */
+    public int getMinColumns() {
+        return minColumns;
+    }
+
+    /**
+     * Build a transaction from a parsed row
+     * An unparseable date falls back to the current date
+     * @throws ParseException If an amount column is not a number
+     */
+    public Transcation apply(String[] values) throws ParseException {
+        return apply(values, false);
+    }
+
+    /**
+     * Build a transaction from a parsed row
+     * @param rejectBadDates If true an unparseable date is an error instead of falling back to the current date
+     * @throws ParseException If an amount column is not a number, or the date is invalid and rejectBadDates is set
+     */
+    public Transcation apply(String[] values, boolean rejectBadDates) throws ParseException {
+        Transcation transaction = new Transcation();
+
+        // Parse date (optionally combined with a separate time column)
+        String dateValue = column(values, dateColumn);
+        String timeValue = column(values, timeColumn);
+        String dateTime = timeValue.isEmpty() ? dateValue : dateValue + " " + timeValue;
+        Date date = parseDate(dateTime);
+        if (date == null && rejectBadDates) {
+            throw new ParseException("Invalid date value: " + dateTime, 0);
+        }
+        // If date format is incorrect, use current date
+        transaction.setDate(date != null ? date : new Date());
+
+        // Parse amount and type
+        if (amountColumn >= 0) {
+            double amount = parseAmount(values[amountColumn]);
+            if (typeColumn >= 0 && typeColumn < values.length) {
+                transaction.setAmount(amount);
+                transaction.setIncome(values[typeColumn].trim().equalsIgnoreCase("income"));
+            } else {
+                // Signed amount: negative values are expenses
+                transaction.setAmount(Math.abs(amount));
+                transaction.setIncome(amount > 0);
+            }
+        } else {
+            double debit = parseAmount(values[debitColumn]);
+            double credit = parseAmount(values[creditColumn]);
+            transaction.setIncome(debit == 0 && credit != 0);
+            transaction.setAmount(Math.abs(debit != 0 ? debit : credit));
+        }
+
+        String category = column(values, categoryColumn);
+        transaction.setCategory(category.isEmpty() ? DEFAULT_CATEGORY : category);
+        transaction.setDescription(column(values, descriptionColumn));
+
+        return transaction;
+    }
+
+    public CSVProfile getProfile() {
+        return profile;
+    }
+
+    private Date parseDate(String value) {
+        for (int i = 0; i < dateFormats.length; i++) {
+            int index = (lastDateFormat + i) % dateFormats.length;
+            ParsePosition position = new ParsePosition(0);
+            Date date = dateFormats[index].parse(value, position);
+            if (date != null && position.getIndex() == value.length()) {
+                lastDateFormat = index;
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private static String column(String[] values, int column) {
+        return column >= 0 && column < values.length ? values[column].trim() : "";
+    }
+
+    /**
+     * Parse an amount, tolerating currency symbols and thousands separators; empty means 0
+     */
+    private static double parseAmount(String value) throws ParseException {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder builder = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E') {
+                builder.append(c);
+            } else if (c != ',' && c != '$' && c != '¥' && c != '€' && c != '£' && c != ' ') {
+                throw new ParseException("Invalid amount value: " + value, 0);
+            }
+        }
+
+        try {
+            return Double.parseDouble(builder.toString());
+        } catch (NumberFormatException e) {
+            throw new ParseException("Invalid amount value: " + value, 0);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+
+/**
+ * Integer keys for dates in the system time zone
+ * Epoch days and year-months are cheap to compute and compare, unlike a Calendar per row
+ */
+public final class DateKeys {
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private DateKeys() {
+    }
+
+    /**
+     * Day number since 1970-01-01 (local time)
+     */
+    public static long epochDay(Date date) {
+        return epochDay(date.getTime());
+    }
+
+    /**
+     * Day number since 1970-01-01 (local time) of an instant in milliseconds
+     */
+    public static long epochDay(long millis) {
+        ZoneRules rules = ZoneId.systemDefault().getRules();
+        long offsetMillis = rules.getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000L;
+        return Math.floorDiv(millis + offsetMillis, MILLIS_PER_DAY);
+    }
+
+    /**
+     * Month number: year * 12 + (month - 1), so consecutive months have consecutive keys
+     */
+    public static int yearMonth(Date date) {
+        return yearMonthOfEpochDay(epochDay(date));
+    }
+
+    /**
+     * Month number of an epoch day
+     */
+    public static int yearMonthOfEpochDay(long epochDay) {
+        LocalDate day = LocalDate.ofEpochDay(epochDay);
+        return day.getYear() * 12 + day.getMonthValue() - 1;
+    }
+
+    /**
+     * Month number of the current month
+     */
+    public static int currentYearMonth() {
+        return yearMonth(new Date());
+    }
+
+    /**
+     * Format a month number as yyyy-MM
+     */
+    public static String formatYearMonth(int yearMonth) {
+        return String.format("%04d-%02d", yearMonth / 12, yearMonth % 12 + 1);
+    }
+
+    /**
+     * First instant of a month number (local midnight on the 1st)
+     */
+    public static Date startOfYearMonth(int yearMonth) {
+        return startOfEpochDay(LocalDate.of(yearMonth / 12, yearMonth % 12 + 1, 1).toEpochDay());
+    }
+
+    /**
+     * Last instant of a month number
+     */
+    public static Date endOfYearMonth(int yearMonth) {
+        return new Date(startOfYearMonth(yearMonth + 1).getTime() - 1);
+    }
+
+    /**
+     * Start of an epoch day (local midnight)
+     */
+    public static Date startOfEpochDay(long epochDay) {
+        return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
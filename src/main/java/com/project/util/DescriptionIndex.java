@@ -0,0 +1,249 @@
+package com.project.util;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Inverted index from description words to transaction ids
+ * Words are lower-cased with accents removed; each word keeps a posting list of (time, id)
+ * pairs in primitive arrays sorted by time, so results come back in date order without sorting.
+ * The dictionary is sorted, so a search term also matches every word it is a prefix of
+ * (search as you type)
+ */
+public class DescriptionIndex {
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+
+    /**
+     * Index the words of a description
+     * @param id Transaction id
+     * @param time Transaction time, the order results are returned in
+     */
+    public void add(int id, long time, String description) {
+        for (String word : tokenize(description)) {
+            dictionary.computeIfAbsent(word, w -> new Postings()).add(time, id);
+        }
+    }
+
+    /**
+     * Remove a previously indexed description
+     */
+    public void remove(int id, long time, String description) {
+        for (String word : tokenize(description)) {
+            Postings postings = dictionary.get(word);
+            if (postings != null) {
+                postings.remove(time, id);
+                if (postings.size == 0) {
+                    dictionary.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the transactions whose description has a word starting with every term of the query
+     * @return Ids ordered by time (ties by id); empty if the query has no terms
+     */
+    public int[] search(String query) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+
+        Postings result = null;
+        for (String term : terms) {
+            Postings matches = prefixUnion(term);
+            result = result == null ? matches : intersect(result, matches);
+            if (result.size == 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result.ids, result.size);
+    }
+
+    /**
+     * Lower-case words of a text with accents removed, each word once
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return words;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    /**
+     * Postings of all words starting with a prefix, merged in time order
+     * Lists are merged pairwise in rounds, so a short prefix matching many words stays O(n log k)
+     */
+    private Postings prefixUnion(String prefix) {
+        List<Postings> lists = new ArrayList<>(dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+        if (lists.isEmpty()) {
+            return new Postings();
+        }
+        while (lists.size() > 1) {
+            List<Postings> merged = new ArrayList<>((lists.size() + 1) / 2);
+            for (int i = 0; i + 1 < lists.size(); i += 2) {
+                merged.add(merge(lists.get(i), lists.get(i + 1)));
+            }
+            if (lists.size() % 2 == 1) {
+                merged.add(lists.get(lists.size() - 1));
+            }
+            lists = merged;
+        }
+        return lists.get(0);
+    }
+
+    /**
+     * Union of two posting lists
+     */
+    private static Postings merge(Postings a, Postings b) {
+        Postings merged = new Postings(a.size + b.size);
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            int order = compare(a.times[i], a.ids[i], b.times[j], b.ids[j]);
+            if (order < 0) {
+                merged.append(a.times[i], a.ids[i++]);
+            } else if (order > 0) {
+                merged.append(b.times[j], b.ids[j++]);
+            } else {
+                merged.append(a.times[i], a.ids[i++]);
+                j++;
+            }
+        }
+        while (i < a.size) {
+            merged.append(a.times[i], a.ids[i++]);
+        }
+        while (j < b.size) {
+            merged.append(b.times[j], b.ids[j++]);
+        }
+        return merged;
+    }
+
+    /**
+     * Intersection of two posting lists
+     */
+    private static Postings intersect(Postings a, Postings b) {
+        Postings common = new Postings(Math.min(a.size, b.size));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            int order = compare(a.times[i], a.ids[i], b.times[j], b.ids[j]);
+            if (order < 0) {
+                i++;
+            } else if (order > 0) {
+                j++;
+            } else {
+                common.append(a.times[i], a.ids[i]);
+                i++;
+                j++;
+            }
+        }
+        return common;
+    }
+
+    private static int compare(long timeA, int idA, long timeB, int idB) {
+        int order = Long.compare(timeA, timeB);
+        return order != 0 ? order : Integer.compare(idA, idB);
+    }
+
+    /**
+     * (time, id) pairs sorted by time, then id
+     */
+    private static class Postings {
+        long[] times;
+        int[] ids;
+        int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            times = new long[Math.max(capacity, 1)];
+            ids = new int[Math.max(capacity, 1)];
+        }
+
+        void append(long time, int id) {
+            ensureCapacity(size + 1);
+            times[size] = time;
+            ids[size] = id;
+            size++;
+        }
+
+        void add(long time, int id) {
+            // New transactions are usually the latest, so this is normally an append
+            if (size == 0 || compare(times[size - 1], ids[size - 1], time, id) < 0) {
+                append(time, id);
+                return;
+            }
+            int index = search(time, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            ensureCapacity(size + 1);
+            System.arraycopy(times, index, times, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            times[index] = time;
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long time, int id) {
+            int index = search(time, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(times, index + 1, times, index, size - index - 1);
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        /**
+         * Binary search; returns the index, or -(insertion point) - 1 if absent
+         */
+        private int search(long time, int id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = compare(times[mid], ids[mid], time, id);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > times.length) {
+                int newCapacity = Math.max(capacity, times.length * 2);
+                times = Arrays.copyOf(times, newCapacity);
+                ids = Arrays.copyOf(ids, newCapacity);
+            }
+        }
+    }
+}
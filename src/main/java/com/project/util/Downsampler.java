@@ -0,0 +1,76 @@
+package com.project.util;
+
+/**
+ * Largest-triangle-three-buckets downsampling of an evenly spaced series
+ * Keeps the visual shape of a series (peaks included) with a fixed number of points,
+ * so drawing costs depend on the screen width rather than on the number of values
+ */
+public class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * Pick the points of a series range to draw
+     * @param values Series values, one per step on the x-axis
+     * @param from First index of the range (inclusive)
+     * @param to Last index of the range (exclusive)
+     * @param threshold Maximum number of points to keep
+     * @return Indices of the kept points in ascending order; the whole range if it has no more than threshold points
+     */
+    public static int[] largestTriangleThreeBuckets(double[] values, int from, int to, int threshold) {
+        int count = to - from;
+        if (count <= 0) {
+            return new int[0];
+        }
+        if (threshold >= count || threshold < 3) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+        // Inner points are split into threshold - 2 buckets; the first and last points are always kept
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int previous = from;
+        sampled[sampledCount++] = previous;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third corner of the triangle
+            int nextStart = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int) Math.floor((bucket + 2) * bucketSize) + 1, to);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += values[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            // Point of the current bucket forming the largest triangle with the previous point and that average
+            int start = from + (int) Math.floor(bucket * bucketSize) + 1;
+            int end = from + (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int selected = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previous - averageX) * (values[i] - values[previous])
+                        - (previous - i) * (averageY - values[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+
+            sampled[sampledCount++] = selected;
+            previous = selected;
+        }
+
+        sampled[sampledCount] = to - 1;
+        return sampled;
+    }
+}
@@ -0,0 +1,231 @@
+package com.project.util;
+
+import com.project.model.Transcation;
+
+import java.util.Locale;
+
+/**
+ * Compact multiset of transaction fingerprints used for duplicate detection
+ * Fingerprints are 64-bit hashes over (timestamp, amount, type, category, normalized description)
+ * and are stored in an open-addressing table of primitive longs, so checking millions of
+ * existing rows costs a few array probes and no per-row objects. Each fingerprint keeps the
+ * number of rows that share it, so removing one of several identical rows keeps it present
+ */
+public class FingerprintIndex {
+    // 0 marks an empty slot, fingerprints are never 0
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] table;
+    // Number of rows per fingerprint, parallel to table
+    private int[] counts;
+    private int mask;
+    private int size;
+
+    /**
+     * Constructor
+     */
+    public FingerprintIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor with expected number of fingerprints
+     */
+    public FingerprintIndex(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.table = new long[capacity];
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Compute the fingerprint of a transaction
+     * Timestamp is taken to the second and amount to the cent, so the same row exported
+     * twice by a bank always yields the same fingerprint
+     */
+    public static long fingerprint(Transcation transaction) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, transaction.getDate() != null ? transaction.getDate().getTime() / 1000 : 0);
+        hash = mix(hash, Math.round(transaction.getAmount() * 100));
+        hash = mix(hash, transaction.isIncome() ? 1 : 2);
+        hash = mixString(hash, normalize(transaction.getCategory()));
+        hash = mixString(hash, normalize(transaction.getDescription()));
+
+        long result = finish(hash);
+        return result == EMPTY ? 1L : result;
+    }
+
+    /**
+     * Add one occurrence of a fingerprint
+     * @return true if the fingerprint was not present before
+     */
+    public boolean add(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            fingerprint = 1L;
+        }
+
+        int slot = slotOf(fingerprint);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == fingerprint) {
+                counts[slot]++;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        table[slot] = fingerprint;
+        counts[slot] = 1;
+        size++;
+
+        // Keep load factor at or below 0.5
+        if (size * 2 > table.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a fingerprint is present
+     */
+    public boolean contains(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            fingerprint = 1L;
+        }
+
+        int slot = slotOf(fingerprint);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == fingerprint) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Remove one occurrence of a fingerprint
+     * The fingerprint stays present while other rows still share it; once the last one is gone,
+     * later entries of the same probe run are shifted back, so no tombstones are needed
+     * @return true if the fingerprint was present
+     */
+    public boolean remove(long fingerprint) {
+        if (fingerprint == EMPTY) {
+            fingerprint = 1L;
+        }
+
+        int slot = slotOf(fingerprint);
+        while (table[slot] != fingerprint) {
+            if (table[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (--counts[slot] > 0) {
+            return true;
+        }
+
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = slotOf(table[next]);
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = EMPTY;
+        counts[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Number of distinct fingerprints in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Normalize text for fingerprinting: trimmed, lower case, runs of whitespace collapsed
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = builder.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    builder.append(' ');
+                    pendingSpace = false;
+                }
+                builder.append(c);
+            }
+        }
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private int slotOf(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldTable = table;
+        int[] oldCounts = counts;
+        table = new long[oldTable.length * 2];
+        counts = new int[table.length];
+        mask = table.length - 1;
+
+        for (int i = 0; i < oldTable.length; i++) {
+            long fingerprint = oldTable[i];
+            if (fingerprint != EMPTY) {
+                int slot = slotOf(fingerprint);
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = fingerprint;
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mixString(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // Field separator so ("ab", "c") and ("a", "bc") differ
+        hash ^= 0x1f;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+
+    // splitmix64 finalizer spreads FNV output across all 64 bits
+    private static long finish(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.util;
+
+import com.project.model.Transcation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of an error-tolerant CSV import
+ * Holds the accepted transactions plus accepted, rejected and duplicate counts
+ */
+public class ImportSummary {
+    // Only the first diagnostics are kept in memory, the reject file has all of them
+    private static final int MAX_DIAGNOSTICS = 100;
+
+    private final List<Transcation> transactions = new ArrayList<>();
+    private final List<String> diagnostics = new ArrayList<>();
+    private final List<String> rejectFilePaths = new ArrayList<>();
+    private int rejectedCount;
+    private int duplicateCount;
+
+    /**
+     * Record an accepted row
+     */
+    public void accept(Transcation transaction) {
+        transactions.add(transaction);
+    }
+
+    /**
+     * Record a rejected row
+     * @param source File (or archive entry) the row came from
+     * @param lineNumber 1-based line number in the source
+     * @param reason Why the row was rejected
+     */
+    public void reject(String source, long lineNumber, String reason) {
+        rejectedCount++;
+        if (diagnostics.size() < MAX_DIAGNOSTICS) {
+            diagnostics.add(source + ":" + lineNumber + ": " + reason);
+        }
+    }
+
+    /**
+     * Merge another summary into this one
+     */
+    public void addAll(ImportSummary other) {
+        transactions.addAll(other.transactions);
+        addCounts(other);
+    }
+
+    /**
+     * Merge the counts, diagnostics and reject files of another summary, but not its transactions
+     */
+    public void addCounts(ImportSummary other) {
+        rejectFilePaths.addAll(other.rejectFilePaths);
+        rejectedCount += other.rejectedCount;
+        duplicateCount += other.duplicateCount;
+        for (String diagnostic : other.diagnostics) {
+            if (diagnostics.size() >= MAX_DIAGNOSTICS) {
+                break;
+            }
+            diagnostics.add(diagnostic);
+        }
+    }
+
+    /**
+     * Get accepted transactions
+     */
+    public List<Transcation> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Number of rows accepted (before duplicate checking)
+     */
+    public int getAcceptedCount() {
+        return transactions.size();
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public void setDuplicateCount(int duplicateCount) {
+        this.duplicateCount = duplicateCount;
+    }
+
+    /**
+     * Get the first diagnostics ("source:line: reason")
+     */
+    public List<String> getDiagnostics() {
+        return Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * Path of the (first) reject file, or null if none was written
+     */
+    public String getRejectFilePath() {
+        return rejectFilePaths.isEmpty() ? null : rejectFilePaths.get(0);
+    }
+
+    /**
+     * Paths of all reject files written, one per source file with rejected rows
+     */
+    public List<String> getRejectFilePaths() {
+        return Collections.unmodifiableList(rejectFilePaths);
+    }
+
+    public void setRejectFilePath(String rejectFilePath) {
+        rejectFilePaths.clear();
+        rejectFilePaths.add(rejectFilePath);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportSummary [accepted=" + getAcceptedCount() + ", rejected=" + rejectedCount +
+                ", duplicates=" + duplicateCount + "]";
+    }
+}
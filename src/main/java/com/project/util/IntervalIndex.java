@@ -0,0 +1,105 @@
+package com.project.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable index of closed intervals [start, end] over long keys (e.g. epoch days)
+ * Intervals are sorted by start and viewed as an implicit balanced binary tree where every node
+ * stores the largest end in its subtree, so stabbing and overlap queries take O(log n + k)
+ * Rebuild the index when the set of intervals changes
+ * @param <T> Value attached to each interval
+ */
+public class IntervalIndex<T> {
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final Object[] values;
+
+    /**
+     * Build an index
+     * @param values Values to index
+     * @param startOf Interval start of a value (inclusive)
+     * @param endOf Interval end of a value (inclusive)
+     */
+    public IntervalIndex(List<T> values, ToLongFunction<T> startOf, ToLongFunction<T> endOf) {
+        int size = values.size();
+        Integer[] order = new Integer[size];
+        long[] rawStarts = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            rawStarts[i] = startOf.applyAsLong(values.get(i));
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> rawStarts[i]));
+
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.maxEnds = new long[size];
+        this.values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            T value = values.get(order[i]);
+            this.starts[i] = rawStarts[order[i]];
+            this.ends[i] = endOf.applyAsLong(value);
+            this.values[i] = value;
+        }
+        buildMaxEnds(0, size);
+    }
+
+    /**
+     * Values whose interval contains a key
+     */
+    public List<T> stab(long key) {
+        return overlapping(key, key);
+    }
+
+    /**
+     * Values whose interval overlaps [from, to]
+     */
+    public List<T> overlapping(long from, long to) {
+        List<T> result = new ArrayList<>();
+        collect(0, starts.length, from, to, result);
+        return result;
+    }
+
+    /**
+     * Number of indexed intervals
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    private long buildMaxEnds(int low, int high) {
+        if (low >= high) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (low + high) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnds(low, mid), buildMaxEnds(mid + 1, high)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int low, int high, long from, long to, List<T> result) {
+        if (low >= high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        // Nothing in this subtree ends late enough
+        if (maxEnds[mid] < from) {
+            return;
+        }
+
+        collect(low, mid, from, to, result);
+        // Right subtree and this node start later still
+        if (starts[mid] > to) {
+            return;
+        }
+        if (ends[mid] >= from) {
+            result.add((T) values[mid]);
+        }
+        collect(mid + 1, high, from, to, result);
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.util;
+
+import com.project.model.Budget;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Precomputed period boundaries of a recurring budget
+ * Every covered epoch day maps to its period number through a flat array, so assigning a
+ * transaction to its period is an array lookup instead of Calendar arithmetic
+ */
+public class PeriodTable {
+    private final Budget.Recurrence recurrence;
+    private final long firstDay;
+    private final long lastDay;
+    // Start day of each period, plus the start of the period after the last one
+    private final long[] periodStarts;
+    // Period number of each day from firstDay to lastDay; null for non-recurring budgets
+    private final int[] periodByDay;
+
+    /**
+     * Constructor
+     * @param recurrence How the periods repeat
+     * @param firstDay Start of the first period (epoch day)
+     * @param lastDay Last day covered by the table (inclusive)
+     */
+    public PeriodTable(Budget.Recurrence recurrence, long firstDay, long lastDay) {
+        this.recurrence = recurrence;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+
+        if (recurrence == Budget.Recurrence.NONE) {
+            // A single period; bounds may be open, so no per-day array
+            this.periodStarts = new long[]{firstDay};
+            this.periodByDay = null;
+            return;
+        }
+
+        long span = lastDay - firstDay + 1;
+        if (span < 0 || span > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Period table span out of range: " + firstDay + ".." + lastDay);
+        }
+
+        LocalDate anchor = LocalDate.ofEpochDay(firstDay);
+        long[] starts = new long[16];
+        int count = 0;
+        long start = firstDay;
+        while (start <= lastDay) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = start;
+            start = recurrence.periodStart(anchor, count).toEpochDay();
+        }
+        this.periodStarts = Arrays.copyOf(starts, count + 1);
+        this.periodStarts[count] = start;
+
+        this.periodByDay = new int[(int) span];
+        for (int period = 0; period < count; period++) {
+            int from = (int) (periodStarts[period] - firstDay);
+            int to = (int) Math.min(periodStarts[period + 1] - firstDay, span);
+            Arrays.fill(periodByDay, from, to, period);
+        }
+    }
+
+    /**
+     * Period number of an epoch day
+     * @return The period, or -1 if the day is not covered by the table
+     */
+    public int periodOf(long day) {
+        if (day < firstDay || day > lastDay) {
+            return -1;
+        }
+        return periodByDay == null ? 0 : periodByDay[(int) (day - firstDay)];
+    }
+
+    /**
+     * Number of periods starting within the table
+     */
+    public int getPeriodCount() {
+        return periodByDay == null ? 1 : periodStarts.length - 1;
+    }
+
+    /**
+     * First day of a period
+     */
+    public long getPeriodStart(int period) {
+        return periodStarts[period];
+    }
+
+    /**
+     * Last day of a period, clipped to the table
+     */
+    public long getPeriodEnd(int period) {
+        return periodByDay == null ? lastDay : Math.min(periodStarts[period + 1] - 1, lastDay);
+    }
+
+    public Budget.Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public long getFirstDay() {
+        return firstDay;
+    }
+
+    public long getLastDay() {
+        return lastDay;
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line reader that decodes its input on a background thread
+ * The producer thread decompresses and splits the input into chunks of lines handed over through
+ * a small bounded queue, so decompression and CSV parsing keep two cores busy
+ */
+public class PipelinedLineReader implements Closeable {
+    private static final int CHUNK_SIZE = 4096;
+    private static final int QUEUE_CAPACITY = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Longest close() waits for the background thread to stop reading
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+    // End-of-input marker, compared by identity
+    private static final String[] END = new String[0];
+
+    private final BlockingQueue<String[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread producer;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private String[] chunk = new String[0];
+    private int position;
+    private boolean finished;
+
+    /**
+     * Constructor, starts the background reader thread
+     * @param source Reader to consume; closed by the background thread when done
+     * @param name Name used for the background thread
+     */
+    public PipelinedLineReader(Reader source, String name) {
+        BufferedReader reader = new BufferedReader(source, BUFFER_SIZE);
+        producer = new Thread(() -> produce(reader), "csv-reader-" + name);
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * Read the next line
+     * @return The line, or null at end of input
+     * @throws IOException If the background thread failed to read the input
+     */
+    public String readLine() throws IOException {
+        while (position >= chunk.length) {
+            if (finished) {
+                return null;
+            }
+
+            try {
+                chunk = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for input");
+            }
+            position = 0;
+
+            if (chunk == END) {
+                finished = true;
+                if (failure != null) {
+                    throw failure;
+                }
+                return null;
+            }
+        }
+
+        return chunk[position++];
+    }
+
+    /**
+     * Stop the background thread; unread input is discarded
+     * Waits (bounded) until the thread has stopped reading, so the caller can then close the
+     * underlying stream or archive safely
+     */
+    @Override
+    public void close() {
+        closed = true;
+        producer.interrupt();
+        // Make room so a producer blocked on a full queue notices the close
+        queue.clear();
+        try {
+            producer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void produce(BufferedReader reader) {
+        try (BufferedReader in = reader) {
+            String[] buffer = new String[CHUNK_SIZE];
+            int count = 0;
+            String line;
+
+            while (!closed && (line = in.readLine()) != null) {
+                buffer[count++] = line;
+                if (count == CHUNK_SIZE) {
+                    put(buffer);
+                    buffer = new String[CHUNK_SIZE];
+                    count = 0;
+                }
+            }
+
+            if (count > 0) {
+                put(Arrays.copyOf(buffer, count));
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void put(String[] lines) throws InterruptedException {
+        while (!closed) {
+            if (queue.offer(lines, 100, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+}
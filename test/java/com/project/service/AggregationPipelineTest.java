@@ -0,0 +1,57 @@
+package com.project.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregationPipelineTest {
+
+    private final AggregationPipeline pipeline = new AggregationPipeline(Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void shouldCoalesceRequestsMadeWhileAComputationIsQueued() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch published = new CountDownLatch(2);
+        AtomicInteger computations = new AtomicInteger();
+        List<Integer> results = new CopyOnWriteArrayList<>();
+
+        AggregationPipeline.Channel<Integer> channel = pipeline.channel(() -> {
+            int run = computations.incrementAndGet();
+            if (run == 1) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return run;
+        }, value -> {
+            results.add(value);
+            published.countDown();
+        });
+
+        channel.request();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        channel.request();
+        channel.request();
+        channel.request();
+        release.countDown();
+
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        assertEquals(2, computations.get());
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(1).intValue());
+    }
+}
@@ -0,0 +1,282 @@
+package com.project.service;
+
+import com.project.model.Budget;
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetServiceTest {
+
+    private TranscationService transactionService;
+    private BudgetService budgetService;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TranscationService();
+        budgetService = new BudgetService(transactionService);
+    }
+
+    private Budget budget(String category, double amount) {
+        Budget budget = new Budget();
+        budget.setCategory(category);
+        budget.setAmount(amount);
+        return budget;
+    }
+
+    private Transcation lastMonthExpense(double amount, String category) {
+        Transcation transaction = new Transcation(amount, false, category, "");
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.MONTH, -1);
+        transaction.setDate(cal.getTime());
+        return transaction;
+    }
+
+    @Test
+    void shouldSummarizeCurrentMonthSpendingPerBudget() {
+        budgetService.addBudget(budget("Food", 200.0));
+        budgetService.addBudget(budget("Transport", 100.0));
+        budgetService.addBudget(budget(Budget.TOTAL_BUDGET, 1000.0));
+
+        transactionService.addTransaction(new Transcation(50.0, false, "Food", "Lunch"));
+        transactionService.addTransaction(new Transcation(30.0, false, "Food", "Dinner"));
+        transactionService.addTransaction(new Transcation(20.0, false, "Shopping", "Socks"));
+        transactionService.addTransaction(new Transcation(500.0, true, "Salary", "Pay"));
+        transactionService.addTransaction(lastMonthExpense(70.0, "Food"));
+
+        BudgetSummary summary = budgetService.getBudgetSummary();
+
+        assertEquals(2, summary.getEntries().size());
+        assertEquals(80.0, summary.getEntry("Food").getSpent());
+        assertEquals(120.0, summary.getEntry("Food").getRemaining());
+        assertEquals(0.0, summary.getEntry("Transport").getSpent());
+        assertEquals(100.0, summary.getTotalSpent());
+        assertEquals(10.0, summary.getTotalEntry().getUsagePercentage());
+    }
+
+    @Test
+    void shouldKeepSpendingCountersInStepWithEditsAndDeletes() {
+        Budget food = budget("Food", 200.0);
+        budgetService.addBudget(food);
+
+        Transcation lunch = new Transcation(50.0, false, "Food", "Lunch");
+        Transcation dinner = new Transcation(30.0, false, "Food", "Dinner");
+        transactionService.addTransaction(lunch);
+        transactionService.addTransaction(dinner);
+        assertEquals(80.0, budgetService.calculateBudgetSpending(food));
+
+        Transcation editedLunch = new Transcation(45.0, false, "Transport", "Taxi");
+        editedLunch.setId(lunch.getId());
+        editedLunch.setDate(lunch.getDate());
+        transactionService.updateTransaction(editedLunch);
+        assertEquals(30.0, budgetService.calculateBudgetSpending(food));
+        assertEquals(75.0, budgetService.getCurrentMonthTotalExpense());
+
+        transactionService.deleteTransaction(dinner.getId());
+        assertEquals(0.0, budgetService.calculateBudgetSpending(food));
+        assertEquals(200.0, budgetService.calculateBudgetRemaining(food));
+        assertEquals(45.0, budgetService.getCurrentMonthTotalExpense());
+        assertFalse(transactionService.isDuplicate(dinner));
+    }
+
+    @Test
+    void shouldOnlyCountExpensesWithinBudgetDates() {
+        Transcation old = lastMonthExpense(70.0, "Food");
+        transactionService.addTransaction(old);
+        transactionService.addTransaction(new Transcation(20.0, false, "Food", "Lunch"));
+
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(old.getDate());
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        Date start = cal.getTime();
+        cal.set(Calendar.DAY_OF_MONTH, cal.getActualMaximum(Calendar.DAY_OF_MONTH));
+        Budget lastMonth = new Budget("Food", 100.0, start, cal.getTime(), "");
+        budgetService.addBudget(lastMonth);
+        Budget thisMonth = budget("Food", 100.0);
+        budgetService.addBudget(thisMonth);
+
+        assertEquals(70.0, budgetService.calculateBudgetSpending(lastMonth));
+        assertEquals(20.0, budgetService.calculateBudgetSpending(thisMonth));
+        assertEquals(1, budgetService.getActiveBudgets(new Date()).size());
+
+        transactionService.addTransaction(lastMonthExpense(5.0, "Food"));
+        assertEquals(75.0, budgetService.calculateBudgetSpending(lastMonth));
+        assertEquals(20.0, budgetService.calculateBudgetSpending(thisMonth));
+    }
+
+    @Test
+    void shouldSummarizePeriodWithOneActiveBudgetPerCategory() {
+        Transcation old = lastMonthExpense(70.0, "Food");
+        transactionService.addTransaction(old);
+        transactionService.addTransaction(new Transcation(20.0, false, "Food", "Lunch"));
+
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(old.getDate());
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        Date start = cal.getTime();
+        cal.set(Calendar.DAY_OF_MONTH, cal.getActualMaximum(Calendar.DAY_OF_MONTH));
+        budgetService.addBudget(new Budget("Transport", 50.0, start, cal.getTime(), ""));
+        budgetService.addBudget(budget("Food", 100.0));
+        budgetService.addBudget(budget(Budget.TOTAL_BUDGET, 500.0));
+        Budget newerTotal = budget(Budget.TOTAL_BUDGET, 800.0);
+        budgetService.addBudget(newerTotal);
+
+        int month = DateKeys.currentYearMonth();
+        BudgetSummary summary = budgetService.getBudgetSummary(DateKeys.startOfYearMonth(month), DateKeys.endOfYearMonth(month));
+
+        // The expired Transport budget is left out; the newer total budget wins
+        assertEquals(1, summary.getEntries().size());
+        assertEquals("Food", summary.getEntries().get(0).getBudget().getCategory());
+        assertEquals(20.0, summary.getEntries().get(0).getSpent());
+        assertEquals(newerTotal.getId(), summary.getTotalEntry().getBudget().getId());
+        assertEquals(20.0, summary.getTotalSpent());
+    }
+
+    @Test
+    void shouldRaiseEachThresholdAlertOnce() {
+        List<BudgetAlert> alerts = new ArrayList<>();
+        budgetService.addObserver(new BudgetObserver() {
+            @Override
+            public void onBudgetDataChanged() {
+            }
+
+            @Override
+            public void onBudgetThresholdCrossed(BudgetAlert alert) {
+                alerts.add(alert);
+            }
+        });
+        budgetService.addBudget(budget("Food", 100.0));
+
+        transactionService.addTransaction(new Transcation(80.0, false, "Food", "Groceries"));
+        assertTrue(alerts.isEmpty());
+
+        transactionService.addTransaction(new Transcation(10.0, false, "Food", "Lunch"));
+        transactionService.addTransaction(new Transcation(1.0, false, "Food", "Coffee"));
+        transactionService.addTransaction(new Transcation(20.0, false, "Transport", "Taxi"));
+        assertEquals(1, alerts.size());
+        assertEquals(85.0, alerts.get(0).getThreshold());
+
+        transactionService.addTransaction(new Transcation(15.0, false, "Food", "Dinner"));
+        transactionService.addTransaction(new Transcation(5.0, false, "Food", "Snack"));
+        assertEquals(2, alerts.size());
+        assertEquals(100.0, alerts.get(1).getThreshold());
+    }
+
+    @Test
+    void shouldFindBudgetsByIdCategoryAndTotal() {
+        Budget food = budget("Food", 200.0);
+        Budget total = budget(Budget.TOTAL_BUDGET, 1000.0);
+        budgetService.addBudget(food);
+        budgetService.addBudget(total);
+
+        assertSame(food, budgetService.getBudgetById(food.getId()));
+        assertSame(total, budgetService.getTotalBudget());
+        assertEquals(1, budgetService.getActiveCategoryBudgets(new Date()).size());
+
+        food.setCategory("Transport");
+        budgetService.updateBudget(food);
+        assertTrue(budgetService.getBudgetsByCategory("Food").isEmpty());
+        assertSame(food, budgetService.getActiveBudget("Transport", new Date()));
+
+        budgetService.deleteBudget(total.getId());
+        assertNull(budgetService.getTotalBudget());
+        assertNull(budgetService.getBudgetById(total.getId()));
+    }
+
+    @Test
+    void shouldTrackEachPeriodOfARecurringBudget() {
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DAY_OF_MONTH, -10);
+        Date tenDaysAgo = cal.getTime();
+
+        Transcation old = new Transcation(40.0, false, "Food", "Groceries");
+        old.setDate(tenDaysAgo);
+        transactionService.addTransaction(old);
+        transactionService.addTransaction(new Transcation(15.0, false, "Food", "Lunch"));
+
+        Budget weekly = new Budget("Food", 50.0, tenDaysAgo, null, "");
+        weekly.setRecurrence(Budget.Recurrence.WEEKLY);
+        budgetService.addBudget(weekly);
+
+        List<BudgetPeriod> periods = budgetService.getBudgetPeriods(weekly);
+        assertEquals(40.0, periods.get(0).getSpent());
+        assertEquals(15.0, periods.get(1).getSpent());
+        assertEquals(15.0, budgetService.calculateBudgetSpending(weekly));
+
+        transactionService.addTransaction(new Transcation(5.0, false, "Food", "Coffee"));
+        assertEquals(20.0, budgetService.calculateBudgetSpending(weekly));
+    }
+
+    @Test
+    void shouldAnchorRecurringBudgetWithoutStartDateToCalendarPeriod() {
+        int month = DateKeys.currentYearMonth();
+        Transcation firstOfMonth = new Transcation(30.0, false, "Food", "Groceries");
+        firstOfMonth.setDate(DateKeys.startOfYearMonth(month));
+        transactionService.addTransaction(firstOfMonth);
+
+        Budget monthly = budget("Food", 300.0);
+        monthly.setStartDate(null);
+        monthly.setEndDate(null);
+        monthly.setRecurrence(Budget.Recurrence.MONTHLY);
+        budgetService.addBudget(monthly);
+
+        // Spending since the first of the month counts, and the anchor is kept for later re-tracking
+        assertEquals(DateKeys.startOfYearMonth(month), monthly.getStartDate());
+        assertEquals(30.0, budgetService.calculateBudgetSpending(monthly));
+        budgetService.updateBudget(monthly);
+        assertEquals(DateKeys.startOfYearMonth(month), monthly.getStartDate());
+        assertEquals(30.0, budgetService.calculateBudgetSpending(monthly));
+    }
+
+    @Test
+    void shouldForecastSpendingUntilTheEndOfThePeriod() {
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DAY_OF_MONTH, -10);
+        Date tenDaysAgo = cal.getTime();
+        cal.add(Calendar.DAY_OF_MONTH, 5);
+        Date fiveDaysAgo = cal.getTime();
+        cal.add(Calendar.DAY_OF_MONTH, 25);
+        Date inTwentyDays = cal.getTime();
+
+        Transcation old = new Transcation(30.0, false, "Food", "Groceries");
+        old.setDate(tenDaysAgo);
+        transactionService.addTransaction(old);
+        transactionService.addTransaction(new Transcation(20.0, false, "Food", "Lunch"));
+
+        Budget current = new Budget("Food", 200.0, tenDaysAgo, inTwentyDays, "");
+        Budget ended = new Budget("Food", 200.0, tenDaysAgo, fiveDaysAgo, "");
+        budgetService.addBudget(current);
+        budgetService.addBudget(ended);
+
+        SpendingForecast forecast = budgetService.forecastBudgetSpending(current);
+        assertEquals(50.0, forecast.getActual());
+        assertTrue(forecast.getProjected() > 50.0);
+        assertTrue(forecast.getLow() >= 50.0);
+        assertTrue(forecast.getHigh() >= forecast.getProjected());
+
+        SpendingForecast closed = budgetService.forecastBudgetSpending(ended);
+        assertEquals(30.0, closed.getProjected());
+    }
+
+    @Test
+    void shouldShareOneCurrentMonthSnapshotPerVersion() {
+        SpendingAggregationService aggregation = budgetService.getSpendingAggregation();
+        transactionService.addTransaction(new Transcation(30.0, false, "Food", "Lunch"));
+
+        PeriodSpending first = aggregation.getCurrentMonth();
+        assertSame(first, aggregation.getCurrentMonth());
+        assertEquals(30.0, budgetService.getCurrentMonthTotalExpense());
+
+        transactionService.addTransaction(new Transcation(10.0, false, "Transport", "Bus"));
+        PeriodSpending second = aggregation.getCurrentMonth();
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+        assertEquals(10.0, second.getCategoryExpense("Transport"));
+        assertEquals(40.0, second.getTotalExpense());
+    }
+}
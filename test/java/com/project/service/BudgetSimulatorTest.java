@@ -0,0 +1,82 @@
+package com.project.service;
+
+import com.project.model.Budget;
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetSimulatorTest {
+
+    private TranscationService transactionService;
+    private BudgetSimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TranscationService();
+        BudgetService budgetService = new BudgetService(transactionService);
+        simulator = new BudgetSimulator(new MonthlyReportGenerator(transactionService, budgetService));
+    }
+
+    private Transcation transaction(int monthsAgo, double amount, String category) {
+        Transcation transaction = new Transcation(amount, false, category, "");
+        Calendar cal = Calendar.getInstance();
+        cal.set(Calendar.DAY_OF_MONTH, 10);
+        cal.add(Calendar.MONTH, -monthsAgo);
+        transaction.setDate(cal.getTime());
+        return transaction;
+    }
+
+    @Test
+    void shouldReplayEveryScenarioAgainstEveryMonth() {
+        transactionService.addTransaction(transaction(2, 150.0, "Food"));
+        transactionService.addTransaction(transaction(1, 90.0, "Food"));
+        transactionService.addTransaction(transaction(0, 300.0, "Food"));
+        transactionService.addTransaction(transaction(0, 50.0, "Transport"));
+
+        Budget tight = new Budget("Food", 100.0, null, null, "");
+        Budget loose = new Budget("Food", 200.0, null, null, "");
+        Budget total = new Budget(Budget.TOTAL_BUDGET, 300.0, null, null, "");
+        List<SimulationResult> results = simulator.simulate(Arrays.asList(
+                Arrays.asList(tight, total), Collections.singletonList(loose)));
+
+        assertEquals(2, results.size());
+        SimulationResult.BudgetOutcome food = results.get(0).getBudgetOutcomes().get(0);
+        assertEquals(3, food.getMonthsEvaluated());
+        assertEquals(2, food.getMonthsExceeded());
+        assertEquals(250.0, food.getTotalOverspend());
+        assertEquals(200.0, food.getMaxOverspend());
+        assertEquals(125.0, food.getAverageOverspend());
+
+        SimulationResult.BudgetOutcome all = results.get(0).getBudgetOutcomes().get(1);
+        assertEquals(1, all.getMonthsExceeded());
+        assertEquals(50.0, all.getTotalOverspend());
+
+        assertEquals(100.0, results.get(1).getTotalOverspend());
+    }
+
+    @Test
+    void shouldReplayOneOffBudgetOnlyInItsMonths() {
+        transactionService.addTransaction(transaction(2, 400.0, "Food"));
+        transactionService.addTransaction(transaction(1, 250.0, "Food"));
+        transactionService.addTransaction(transaction(0, 900.0, "Food"));
+        int lastMonth = DateKeys.currentYearMonth() - 1;
+        int firstMonth = lastMonth - 1;
+        Budget twoMonths = new Budget("Food", 600.0, DateKeys.startOfYearMonth(firstMonth), DateKeys.endOfYearMonth(lastMonth), "");
+        double firstShare = 600.0 * YearMonth.of(firstMonth / 12, firstMonth % 12 + 1).lengthOfMonth()
+                / (DateKeys.epochDay(DateKeys.endOfYearMonth(lastMonth)) - DateKeys.epochDay(DateKeys.startOfYearMonth(firstMonth)) + 1);
+
+        SimulationResult.BudgetOutcome outcome = simulator.simulate(
+                Collections.singletonList(Collections.singletonList(twoMonths))).get(0).getBudgetOutcomes().get(0);
+
+        assertEquals(2, outcome.getMonthsEvaluated());
+        assertEquals(1, outcome.getMonthsExceeded());
+        assertEquals(400.0 - firstShare, outcome.getTotalOverspend(), 0.001);
+    }
+}
@@ -0,0 +1,130 @@
+package com.project.service;
+
+import com.project.model.Transcation;
+import com.project.util.ImportSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FolderWatchServiceTest {
+
+    private static final String HEADER = "Date,Amount,Type,Category,Description\n";
+
+    @TempDir
+    Path tempDir;
+
+    private TranscationService transactionService;
+    private FolderWatchService watcher;
+    private List<ImportSummary> summaries;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TranscationService();
+        // Batches are imported on the calling thread
+        watcher = new FolderWatchService(transactionService, tempDir, Runnable::run);
+        summaries = new ArrayList<>();
+        watcher.setImportListener(summaries::add);
+        file = tempDir.resolve("statement.csv");
+    }
+
+    private void write(String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void append(String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private void ingest() {
+        watcher.ingest(Collections.singleton(file));
+    }
+
+    @Test
+    void shouldImportOnlyAppendedTail() throws Exception {
+        write(HEADER + "2025-01-01 08:30:00,1200.00,Income,Salary,January salary\n");
+        ingest();
+        append("2025-01-05 12:15:00,45.75,Expense,Food,Groceries\n");
+        ingest();
+
+        assertEquals(2, transactionService.getTransactionCount());
+        assertEquals(2, summaries.size());
+        assertEquals(1, summaries.get(1).getAcceptedCount());
+        assertEquals(0, summaries.get(1).getDuplicateCount());
+    }
+
+    @Test
+    void shouldHoldBackPartialTrailingLine() throws Exception {
+        write(HEADER + "2025-01-01 08:30:00,1200.00,Income,Salary,January salary\n2025-01-05 12:15:00,45.");
+        ingest();
+        assertEquals(1, transactionService.getTransactionCount());
+
+        append("75,Expense,Food,Groceries\n");
+        ingest();
+
+        assertEquals(2, transactionService.getTransactionCount());
+        assertEquals(45.75, transactionService.getTransactionAt(1).getAmount());
+        assertEquals(0, summaries.get(1).getRejectedCount());
+    }
+
+    @Test
+    void shouldReadRowsAddedAfterHeaderOnlyFirstRead() throws Exception {
+        write(HEADER);
+        ingest();
+        assertTrue(summaries.isEmpty());
+
+        append("2025-01-05 12:15:00,45.75,Expense,Food,Groceries\n");
+        ingest();
+
+        assertEquals(1, transactionService.getTransactionCount());
+        assertEquals("Groceries", transactionService.getTransactionAt(0).getDescription());
+    }
+
+    @Test
+    void shouldStartOverWhenFileIsTruncated() throws Exception {
+        write(HEADER + "2025-01-01 08:30:00,1200.00,Income,Salary,January salary\n"
+                + "2025-01-05 12:15:00,45.75,Expense,Food,Groceries\n");
+        ingest();
+        write(HEADER + "2025-02-01 09:00:00,9.50,Expense,Food,Coffee\n");
+        ingest();
+
+        assertEquals(3, transactionService.getTransactionCount());
+        assertEquals(0, summaries.get(1).getRejectedCount());
+    }
+
+    @Test
+    void shouldStartOverWhenFileIsRewrittenLarger() throws Exception {
+        write(HEADER + "2025-01-01 08:30:00,1200.00,Income,Salary,January salary\n");
+        ingest();
+        // Same file, rewritten in place with different rows: the old offset would land mid-line
+        write(HEADER + "2025-01-01 08:30:00,1200.00,Income,Salary,January salary\n".replace("January", "Jan")
+                + "2025-03-02 18:45:00,80.00,Expense,Transport,Train tickets\n"
+                + "2025-03-03 19:00:00,12.00,Expense,Food,Lunch\n");
+        ingest();
+
+        ImportSummary second = summaries.get(1);
+        assertEquals(0, second.getRejectedCount());
+        assertEquals(3, second.getAcceptedCount());
+        assertEquals(4, transactionService.getTransactionCount());
+        for (Transcation transaction : transactionService.getAllTransactions()) {
+            assertFalse(transaction.getDescription().isEmpty());
+        }
+    }
+
+    @Test
+    void shouldReportUnreadableFileThroughListener() {
+        watcher.ingest(Collections.singleton(tempDir.resolve("missing.csv")));
+
+        assertEquals(1, summaries.size());
+        assertEquals(1, summaries.get(0).getRejectedCount());
+        assertTrue(summaries.get(0).getDiagnostics().get(0).contains("missing.csv"));
+    }
+}
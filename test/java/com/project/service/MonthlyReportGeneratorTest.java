@@ -0,0 +1,119 @@
+package com.project.service;
+
+import com.project.model.Budget;
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonthlyReportGeneratorTest {
+
+    private TranscationService transactionService;
+    private BudgetService budgetService;
+    private MonthlyReportGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        transactionService = new TranscationService();
+        budgetService = new BudgetService(transactionService);
+        generator = new MonthlyReportGenerator(transactionService, budgetService);
+    }
+
+    private Transcation transaction(int monthsAgo, double amount, boolean income, String category) {
+        Transcation transaction = new Transcation(amount, income, category, "");
+        Calendar cal = Calendar.getInstance();
+        cal.set(Calendar.DAY_OF_MONTH, 10);
+        cal.add(Calendar.MONTH, -monthsAgo);
+        transaction.setDate(cal.getTime());
+        return transaction;
+    }
+
+    @Test
+    void shouldReportEveryMonthWithChangesAndBudgetLines() {
+        transactionService.addTransaction(transaction(2, 100.0, false, "Food"));
+        transactionService.addTransaction(transaction(2, 1000.0, true, "Salary"));
+        transactionService.addTransaction(transaction(0, 250.0, false, "Food"));
+        Budget food = new Budget();
+        food.setCategory("Food");
+        food.setAmount(200.0);
+        budgetService.addBudget(food);
+
+        List<MonthlyReport> reports = generator.generate();
+
+        assertEquals(3, reports.size());
+        assertEquals(100.0, reports.get(0).getExpense());
+        assertEquals(900.0, reports.get(0).getNet());
+        assertEquals(0, reports.get(1).getTransactionCount());
+        assertEquals(-100.0, reports.get(1).getExpenseChange());
+        assertEquals(250.0, reports.get(2).getCategoryChange("Food"));
+        assertEquals(1, reports.get(2).getBudgetLines().size());
+        assertTrue(reports.get(2).getBudgetLines().get(0).isOverBudget());
+        assertTrue(reports.get(0).getBudgetLines().isEmpty());
+    }
+
+    @Test
+    void shouldOnlyRecomputeTouchedMonths() {
+        transactionService.addTransaction(transaction(2, 100.0, false, "Food"));
+        transactionService.addTransaction(transaction(0, 50.0, false, "Food"));
+        generator.generate();
+        assertEquals(3, generator.getLastRecomputedCount());
+        assertEquals(0, generator.getDirtyMonthCount());
+
+        Transcation added = transaction(0, 20.0, false, "Transport");
+        transactionService.addTransaction(added);
+        assertEquals(1, generator.getDirtyMonthCount());
+
+        List<MonthlyReport> reports = generator.generate();
+        assertEquals(1, generator.getLastRecomputedCount());
+        assertEquals(70.0, reports.get(2).getExpense());
+
+        transactionService.deleteTransaction(added.getId());
+        assertEquals(50.0, generator.generate().get(2).getExpense());
+    }
+
+    @Test
+    void shouldAggregateOffTheUpdatingThreadAndAddBudgetLinesAfterwards() throws Exception {
+        transactionService.addTransaction(transaction(1, 100.0, false, "Food"));
+        transactionService.addTransaction(transaction(0, 250.0, false, "Food"));
+        Budget food = new Budget();
+        food.setCategory("Food");
+        food.setAmount(200.0);
+        budgetService.addBudget(food);
+
+        List<List<MonthlyReport>> result = new ArrayList<>();
+        Thread worker = new Thread(() -> result.add(generator.aggregate()));
+        worker.start();
+        worker.join();
+        List<MonthlyReport> months = result.get(0);
+
+        assertEquals(2, months.size());
+        assertTrue(months.get(1).getBudgetLines().isEmpty());
+        assertEquals(150.0, months.get(1).getExpenseChange());
+        List<MonthlyReport> reports = generator.addBudgetLines(months);
+        assertEquals(250.0, reports.get(1).getExpense());
+        assertEquals(150.0, reports.get(1).getExpenseChange());
+        assertTrue(reports.get(1).getBudgetLines().get(0).isOverBudget());
+        assertEquals(0, generator.getDirtyMonthCount());
+    }
+
+    @Test
+    void shouldProrateOneOffBudgetByDaysInEachMonth() {
+        int january = 2025 * 12;
+        Budget quarter = new Budget("Food", 3000.0, DateKeys.startOfYearMonth(january), DateKeys.endOfYearMonth(january + 2), "");
+        Budget midMonth = new Budget("Food", 300.0,
+                DateKeys.startOfEpochDay(LocalDate.of(2025, 1, 16).toEpochDay()),
+                DateKeys.startOfEpochDay(LocalDate.of(2025, 2, 14).toEpochDay()), "");
+
+        assertEquals(3000.0 * 31 / 90, MonthlyReportGenerator.monthlyAmount(quarter, january), 0.001);
+        assertEquals(3000.0 * 28 / 90, MonthlyReportGenerator.monthlyAmount(quarter, january + 1), 0.001);
+        assertEquals(0.0, MonthlyReportGenerator.monthlyAmount(quarter, january + 3));
+        assertEquals(160.0, MonthlyReportGenerator.monthlyAmount(midMonth, january), 0.001);
+        assertEquals(140.0, MonthlyReportGenerator.monthlyAmount(midMonth, january + 1), 0.001);
+        assertFalse(MonthlyReportGenerator.appliesTo(midMonth, january + 2));
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.service;
+
+import com.project.model.Transcation;
+import com.project.util.DateKeys;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.Date;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingForecasterTest {
+
+    private static Transcation expense(double amount, long daysAgo) {
+        Transcation transaction = new Transcation(amount, false, "Food", "");
+        transaction.setDate(DateKeys.startOfEpochDay(DateKeys.epochDay(new Date()) - daysAgo));
+        return transaction;
+    }
+
+    @Test
+    void shouldCountDaysOfMonthLikeTheCalendar() {
+        LocalDate[][] ranges = {
+                {LocalDate.of(2023, 1, 31), LocalDate.of(2024, 3, 1)},
+                {LocalDate.of(1999, 12, 15), LocalDate.of(2001, 2, 28)},
+                {LocalDate.of(2024, 2, 10), LocalDate.of(2024, 2, 29)},
+                {LocalDate.of(2025, 7, 4), LocalDate.of(2025, 7, 4)},
+        };
+        for (LocalDate[] range : ranges) {
+            int[] expected = new int[32];
+            for (LocalDate day = range[0]; !day.isAfter(range[1]); day = day.plusDays(1)) {
+                expected[day.getDayOfMonth()]++;
+            }
+            assertArrayEquals(expected, SpendingForecaster.occurrences(range[0], range[1]));
+        }
+    }
+
+    @Test
+    void shouldForgetFirstSpendingDayWhenItsExpensesAreRemoved() {
+        long today = DateKeys.epochDay(new Date());
+        Transcation old = expense(90.0, 60);
+        Transcation recent = expense(30.0, 3);
+
+        SpendingForecaster forecaster = new SpendingForecaster();
+        forecaster.add(old);
+        forecaster.add(recent);
+        forecaster.remove(old);
+        SpendingForecaster fresh = new SpendingForecaster();
+        fresh.add(recent);
+
+        SpendingForecast afterDelete = forecaster.forecast("Food", 0, today, today + 10);
+        SpendingForecast expected = fresh.forecast("Food", 0, today, today + 10);
+        assertEquals(expected.getProjected(), afterDelete.getProjected(), 1e-9);
+    }
+}
@@ -4,6 +4,10 @@ import com.project.model.Transcation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -64,4 +68,243 @@ class TranscationServiceTest {
 
         verify(observer, times(1)).onTransactionDataChanged();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSkipDuplicatesOnReimport() {
+        Date date = new Date(1_700_000_000_000L);
+        Transcation existing = new Transcation(45.75, false, "Food", "Grocery shopping");
+        existing.setDate(date);
+        transactionService.addTransaction(existing);
+
+        Transcation again = new Transcation(45.75, false, "Food", "Grocery shopping");
+        again.setDate(date);
+        Transcation fresh = new Transcation(25.0, false, "Transport", "Fuel");
+        fresh.setDate(date);
+
+        int duplicates = transactionService.importTransactions(Arrays.asList(again, fresh), true);
+
+        assertEquals(1, duplicates);
+        assertEquals(2, transactionService.getAllTransactions().size());
+    }
+
+    @Test
+    void shouldReturnTransactionsMostRecentFirstAndByRange() {
+        Transcation older = new Transcation(10.0, false, "Food", "older");
+        older.setDate(new Date(1_000_000L));
+        Transcation newer = new Transcation(20.0, false, "Food", "newer");
+        newer.setDate(new Date(3_000_000L));
+        Transcation middle = new Transcation(30.0, false, "Food", "middle");
+        middle.setDate(new Date(2_000_000L));
+
+        transactionService.addTransaction(older);
+        transactionService.addTransaction(newer);
+        transactionService.importTransactions(Arrays.asList(middle), true);
+
+        assertEquals("newer", transactionService.getAllTransactions().get(0).getDescription());
+        assertEquals("middle", transactionService.getAllTransactions().get(1).getDescription());
+        assertEquals(2, transactionService.getTransactionsByDateRange(new Date(1_500_000L), new Date(3_000_000L)).size());
+        assertEquals(3, transactionService.getTransactionCount());
+        assertSame(older, transactionService.getTransactionAt(0));
+        assertSame(newer, transactionService.getTransactionAt(2));
+    }
+
+    @Test
+    void shouldReportLedgerPositionsOfChanges() {
+        Transcation older = new Transcation(10.0, false, "Food", "older");
+        older.setDate(new Date(1_000_000L));
+        Transcation newer = new Transcation(20.0, false, "Food", "newer");
+        newer.setDate(new Date(3_000_000L));
+        transactionService.addTransaction(older);
+        transactionService.addTransaction(newer);
+        transactionService.addObserver(observer);
+
+        Transcation middle = new Transcation(30.0, false, "Food", "middle");
+        middle.setDate(new Date(2_000_000L));
+        transactionService.addTransaction(middle);
+        verify(observer).onLedgerRowsInserted(1, 1);
+
+        Transcation edited = new Transcation(35.0, false, "Food", "middle");
+        edited.setId(middle.getId());
+        edited.setDate(middle.getDate());
+        transactionService.updateTransaction(edited);
+        verify(observer).onLedgerRowsUpdated(1, 1);
+
+        transactionService.deleteTransaction(older.getId());
+        verify(observer).onLedgerRowsDeleted(0, 0);
+
+        Transcation latest = new Transcation(5.0, false, "Food", "latest");
+        latest.setDate(new Date(4_000_000L));
+        transactionService.importTransactions(Arrays.asList(latest), true);
+        verify(observer).onLedgerRowsInserted(2, 2);
+    }
+
+    @Test
+    void shouldKeepCategoryAndAmountIndexesInStep() {
+        Transcation lunch = new Transcation(12.0, false, "Food", "lunch");
+        lunch.setDate(new Date(2_000_000L));
+        Transcation taxi = new Transcation(30.0, false, "Transport", "taxi");
+        taxi.setDate(new Date(3_000_000L));
+        transactionService.addTransaction(lunch);
+        transactionService.addTransaction(taxi);
+
+        Transcation breakfast = new Transcation(5.0, false, "Food", "breakfast");
+        breakfast.setDate(new Date(1_000_000L));
+        Transcation salary = new Transcation(500.0, true, "Salary", "salary");
+        salary.setDate(new Date(4_000_000L));
+        transactionService.importTransactions(Arrays.asList(salary, breakfast), true);
+
+        assertEquals(Arrays.asList("Food", "Salary", "Transport"), transactionService.getCategories());
+        assertEquals(Arrays.asList(breakfast, lunch), transactionService.getTransactionsByCategory("Food"));
+        assertEquals(Arrays.asList(breakfast, lunch, taxi, salary), transactionService.getTransactionsByAmount());
+
+        Transcation dinner = new Transcation(40.0, false, "Food", "dinner");
+        dinner.setId(lunch.getId());
+        dinner.setDate(lunch.getDate());
+        transactionService.updateTransaction(dinner);
+        transactionService.deleteTransaction(taxi.getId());
+
+        assertEquals(Arrays.asList("Food", "Salary"), transactionService.getCategories());
+        assertEquals(Arrays.asList(breakfast, dinner), transactionService.getTransactionsByCategory("Food"));
+        assertEquals(Arrays.asList(breakfast, dinner, salary), transactionService.getTransactionsByAmount());
+    }
+
+    @Test
+    void shouldSearchDescriptionsInDateOrder() {
+        Transcation rent = new Transcation(900.0, false, "Housing", "March rent");
+        rent.setDate(new Date(2_000_000L));
+        Transcation pizza = new Transcation(15.0, false, "Food", "Pizza");
+        pizza.setDate(new Date(1_000_000L));
+        transactionService.addTransaction(rent);
+        transactionService.importTransactions(Arrays.asList(pizza), true);
+
+        assertEquals(Arrays.asList(pizza), transactionService.searchByDescription("piz"));
+        assertEquals(Arrays.asList(rent), transactionService.searchByDescription("RENT"));
+
+        Transcation edited = new Transcation(950.0, false, "Housing", "April rent");
+        edited.setId(rent.getId());
+        edited.setDate(new Date(500_000L));
+        transactionService.updateTransaction(edited);
+        assertTrue(transactionService.searchByDescription("march").isEmpty());
+        assertEquals(Arrays.asList(edited), transactionService.searchByDescription("rent"));
+
+        transactionService.deleteTransaction(pizza.getId());
+        assertTrue(transactionService.searchByDescription("pizza").isEmpty());
+    }
+
+    @Test
+    void shouldSumExpensesPerDayIncludingEmptyDays() {
+        long day = 24 * 60 * 60 * 1000L;
+        long noon = 1_700_000_000_000L / day * day + day / 2;
+        Transcation lunch = new Transcation(12.5, false, "Food", "Lunch");
+        lunch.setDate(new Date(noon));
+        Transcation salary = new Transcation(3000.0, true, "Salary", "");
+        salary.setDate(new Date(noon + day));
+        Transcation dinner = new Transcation(30.0, false, "Food", "Dinner");
+        dinner.setDate(new Date(noon + 3 * day));
+        Transcation snack = new Transcation(4.5, false, "Food", "Snack");
+        snack.setDate(new Date(noon + 3 * day + 60_000L));
+        transactionService.importTransactions(Arrays.asList(lunch, salary, dinner, snack), true);
+
+        DailyExpenses daily = transactionService.getDailyExpenses();
+
+        assertEquals(4, daily.size());
+        assertEquals(12.5, daily.get(0));
+        assertEquals(0.0, daily.get(1));
+        assertEquals(0.0, daily.get(2));
+        assertEquals(34.5, daily.get(3));
+    }
+
+    @Test
+    void shouldAnswerWindowTotalsFromRollups() {
+        long hour = 60 * 60 * 1000L;
+        long start = 1_600_000_000_000L;
+        List<Transcation> batch = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            // Every 17 hours for almost three years, amounts in whole cents
+            Transcation transaction = new Transcation((i % 97) + 0.25, i % 5 == 0, i % 3 == 0 ? "Food" : "Rent", "");
+            transaction.setDate(new Date(start + i * 17 * hour));
+            batch.add(transaction);
+        }
+        transactionService.importTransactions(batch, false);
+        transactionService.deleteTransaction(batch.get(10).getId());
+        Transcation edited = new Transcation(500.0, false, "Food", "");
+        edited.setId(batch.get(20).getId());
+        edited.setDate(new Date(start + 800 * 17 * hour));
+        transactionService.updateTransaction(edited);
+
+        long[][] windows = {
+                {start, start + 1500 * 17 * hour},
+                {start + 5 * hour, start + 900 * 24 * hour + 3 * hour},
+                {start + 40 * 24 * hour, start + 41 * 24 * hour},
+                {start + 100 * hour, start + 110 * hour},
+        };
+        for (long[] window : windows) {
+            Date from = new Date(window[0]);
+            Date to = new Date(window[1]);
+            double income = 0;
+            double expense = 0;
+            double food = 0;
+            for (Transcation transaction : transactionService.getTransactionsByDateRange(from, to)) {
+                if (transaction.isIncome()) {
+                    income += transaction.getAmount();
+                } else {
+                    expense += transaction.getAmount();
+                    food += "Food".equals(transaction.getCategory()) ? transaction.getAmount() : 0;
+                }
+            }
+
+            RollupTotals totals = transactionService.getTotals(from, to);
+
+            assertEquals(income, totals.getIncome(), 0.001);
+            assertEquals(expense, totals.getExpense(), 0.001);
+            assertEquals(food, totals.getCategoryExpense("Food"), 0.001);
+        }
+        assertEquals(transactionService.getTotalExpense(),
+                transactionService.getMonthlyExpenses().values().stream().mapToDouble(Double::doubleValue).sum(), 0.001);
+    }
+
+    @Test
+    void shouldKeepAllTimeCategoryTotalsAcrossEditsAndDeletes() {
+        Transcation salary = new Transcation(3000.0, true, "Salary", "");
+        Transcation bonus = new Transcation(200.0, true, "Bonus", "");
+        Transcation lunch = new Transcation(12.5, false, "Food", "Lunch");
+        Transcation bus = new Transcation(2.0, false, "Transport", "");
+        transactionService.importTransactions(Arrays.asList(salary, bonus, lunch, bus), true);
+        transactionService.deleteTransaction(bonus.getId());
+        Transcation dinner = new Transcation(30.0, false, "Food", "Dinner");
+        dinner.setId(bus.getId());
+        dinner.setDate(bus.getDate());
+        transactionService.updateTransaction(dinner);
+
+        RollupTotals totals = transactionService.getTotals();
+
+        assertEquals(3000.0, totals.getIncome(), 0.001);
+        assertEquals(42.5, totals.getExpense(), 0.001);
+        assertEquals(3, totals.getTransactionCount());
+        assertEquals(1, totals.getCategoryIncomes().size());
+        assertEquals(3000.0, totals.getCategoryIncomes().get("Salary"), 0.001);
+        assertEquals(1, totals.getCategoryExpenses().size());
+        assertEquals(42.5, totals.getCategoryExpense("Food"), 0.001);
+    }
+
+    @Test
+    void shouldStillReportDuplicateAfterDeletingOneOfTwoIdenticalRows() {
+        Date date = new Date(1_700_000_000_000L);
+        Transcation first = new Transcation(15.99, false, "Food", "Pizza");
+        first.setDate(date);
+        Transcation second = new Transcation(15.99, false, "Food", "Pizza");
+        second.setDate(date);
+        transactionService.importTransactions(Arrays.asList(first, second), false);
+
+        transactionService.deleteTransaction(first.getId());
+
+        Transcation reimported = new Transcation(15.99, false, "Food", "Pizza");
+        reimported.setDate(date);
+        assertTrue(transactionService.isDuplicate(reimported));
+        assertEquals(1, transactionService.importTransactions(Arrays.asList(reimported), true));
+        assertEquals(1, transactionService.getAllTransactions().size());
+
+        transactionService.deleteTransaction(second.getId());
+        assertFalse(transactionService.isDuplicate(reimported));
+    }
+}
@@ -0,0 +1,200 @@
+package com.project.util;
+
+import com.project.model.Transcation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CSVImporter importer = new CSVImporter();
+
+    private String writeCsv(String name, String content) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    @Test
+    void shouldImportDefaultFormat() throws Exception {
+        String file = writeCsv("default.csv",
+                "Date,Amount,Type,Category,Description\n" +
+                "2025-01-01 08:30:00,1200.00,Income,Salary,January salary\n" +
+                "2025-01-05 12:15:00,45.75,Expense,Food,\"Grocery, weekly\"\n");
+
+        List<Transcation> transactions = importer.importTransactions(file);
+
+        assertEquals(2, transactions.size());
+        assertTrue(transactions.get(0).isIncome());
+        assertEquals(45.75, transactions.get(1).getAmount());
+        assertEquals("Grocery, weekly", transactions.get(1).getDescription());
+    }
+
+    @Test
+    void shouldMapReorderedDebitCreditColumns() throws Exception {
+        String file = writeCsv("bank.csv",
+                "Booking Date,Memo,Debit,Credit,Category\n" +
+                "2025-02-03,Rent,500.00,,Housing\n" +
+                "2025-02-04,Refund,,\"1,020.50\",Refund\n");
+
+        List<Transcation> transactions = importer.importTransactions(file);
+
+        assertEquals(2, transactions.size());
+        assertFalse(transactions.get(0).isIncome());
+        assertEquals(500.0, transactions.get(0).getAmount());
+        assertEquals("Rent", transactions.get(0).getDescription());
+        assertTrue(transactions.get(1).isIncome());
+        assertEquals(1020.5, transactions.get(1).getAmount());
+    }
+
+    @Test
+    void shouldCombineSeparateDateAndTimeColumns() throws Exception {
+        String file = writeCsv("signed.csv",
+                "Date,Time,Amount,Details\n" +
+                "2025-03-09,18:45:10,-15.99,Pizza delivery\n");
+
+        List<Transcation> transactions = importer.importTransactions(file);
+
+        assertEquals(1, transactions.size());
+        Transcation transaction = transactions.get(0);
+        assertFalse(transaction.isIncome());
+        assertEquals(15.99, transaction.getAmount());
+        assertEquals("Other", transaction.getCategory());
+        assertEquals("2025-03-09 18:45:10",
+                new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(transaction.getDate()));
+    }
+
+    @Test
+    void shouldRejectBadRowsAndKeepImporting() throws Exception {
+        String file = writeCsv("broken.csv",
+                "Date,Amount,Type,Category,Description\n" +
+                "2025-01-05 12:15:00,45.75,Expense,Food,Groceries\n" +
+                "2025-01-06 10:00:00,abc,Expense,Food,Bad amount\n" +
+                "2025-01-07 09:45:00,25.00\n" +
+                "2025-01-08 17:20:00,15.99,Expense,Food,Pizza\n");
+        String rejectFile = tempDir.resolve("broken.rejects.csv").toString();
+
+        ImportSummary summary = importer.importTransactionsTolerant(file, null, rejectFile);
+
+        assertEquals(2, summary.getAcceptedCount());
+        assertEquals(2, summary.getRejectedCount());
+        assertEquals(rejectFile, summary.getRejectFilePath());
+        List<String> rejects = Files.readAllLines(Path.of(rejectFile));
+        assertEquals(3, rejects.size());
+        assertTrue(rejects.get(1).contains(",3,"));
+        assertTrue(rejects.get(2).contains(",4,"));
+    }
+
+    @Test
+    void shouldRequireAllFiveFieldsInDefaultFormat() throws Exception {
+        String file = writeCsv("short.csv",
+                "Date,Amount,Type,Category,Description\n" +
+                "2025-01-05 12:15:00,45.75,Expense,Food\n" +
+                "2025-01-06 12:15:00,12.00,Expense,Food,Lunch\n");
+
+        ImportSummary summary = importer.importTransactionsTolerant(file, null, null);
+
+        assertEquals(1, summary.getAcceptedCount());
+        assertEquals(1, summary.getRejectedCount());
+        assertEquals(5, ColumnPlan.positional().getMinColumns());
+        assertFalse(ColumnPlan.positional().accepts(new String[]{"2025-01-05", "45.75", "Expense", "Food"}));
+    }
+
+    @Test
+    void shouldRefuseProfileWithoutAmountSource() {
+        assertThrows(IllegalArgumentException.class, () -> new CSVProfile("Dates only",
+                EnumSet.of(CSVProfile.Field.DATE, CSVProfile.Field.DESCRIPTION), "yyyy-MM-dd"));
+        assertThrows(IllegalArgumentException.class, () -> new CSVProfile("Debit only",
+                EnumSet.of(CSVProfile.Field.DATE, CSVProfile.Field.DEBIT), "yyyy-MM-dd"));
+    }
+
+    @Test
+    void shouldNotCreateRejectFileForCleanInput() throws Exception {
+        String file = writeCsv("clean.csv",
+                "Date,Amount,Type,Category,Description\n" +
+                "2025-01-05 12:15:00,45.75,Expense,Food,Groceries\n");
+        Path rejectFile = tempDir.resolve("clean.rejects.csv");
+
+        ImportSummary summary = importer.importTransactionsTolerant(file, null, rejectFile.toString());
+
+        assertEquals(1, summary.getAcceptedCount());
+        assertNull(summary.getRejectFilePath());
+        assertFalse(Files.exists(rejectFile));
+    }
+
+    @Test
+    void shouldStreamGzippedCsv() throws Exception {
+        Path file = tempDir.resolve("statement.csv.gz");
+        StringBuilder csv = new StringBuilder("Date,Amount,Type,Category,Description\n");
+        for (int i = 0; i < 10_000; i++) {
+            csv.append("2025-01-05 12:15:00,").append(i).append(".50,Expense,Food,Row ").append(i).append("\n");
+        }
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Transcation> transactions = importer.importTransactions(file.toString());
+
+        assertEquals(10_000, transactions.size());
+        assertEquals(9999.5, transactions.get(9999).getAmount());
+    }
+
+    @Test
+    void shouldImportEveryCsvEntryOfZipInOneBatch() throws Exception {
+        Path file = tempDir.resolve("statements.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("january.csv"));
+            out.write(("Date,Amount,Type,Category,Description\n" +
+                    "2025-01-05 12:15:00,45.75,Expense,Food,Groceries\n").getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("readme.txt"));
+            out.write("not a statement".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("february.csv"));
+            out.write(("Date,Description,Debit,Credit\n" +
+                    "2025-02-03,Rent,500.00,\n" +
+                    "2025-02-04,Refund,,oops\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        ImportSummary summary = importer.importTransactionsTolerant(file.toString(), null, null);
+
+        assertEquals(2, summary.getAcceptedCount());
+        assertEquals(1, summary.getRejectedCount());
+        assertTrue(summary.getDiagnostics().get(0).contains("february.csv:3"));
+    }
+
+    @Test
+    void shouldMergeMultipleFilesByDate() throws Exception {
+        String march = writeCsv("march.csv",
+                "Date,Amount,Type,Category,Description\n" +
+                "2025-03-02 10:00:00,3,Expense,Food,c\n" +
+                "2025-03-01 10:00:00,1,Expense,Food,a\n");
+        String bank = writeCsv("bank.csv",
+                "Date,Description,Debit,Credit\n" +
+                "2025-03-01,b,2,\n" +
+                "2025-03-03,bad,x,\n" +
+                "2025-03-04,d,4,\n");
+
+        ImportSummary summary = importer.importFiles(Arrays.asList(march, bank), null, null);
+
+        assertEquals(4, summary.getAcceptedCount());
+        assertEquals(1, summary.getRejectedCount());
+        StringBuilder order = new StringBuilder();
+        for (Transcation transaction : summary.getTransactions()) {
+            order.append(transaction.getDescription());
+        }
+        assertEquals("bacd", order.toString());
+    }
+}
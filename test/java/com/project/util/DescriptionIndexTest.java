@@ -0,0 +1,28 @@
+package com.project.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptionIndexTest {
+
+    @Test
+    void shouldFindWordsAndPrefixesInDateOrder() {
+        DescriptionIndex index = new DescriptionIndex();
+        index.add(1, 3000L, "Pizza night");
+        index.add(2, 1000L, "Monthly RENT");
+        index.add(3, 2000L, "Pizzería Café");
+        index.add(4, 500L, "rental car");
+
+        assertArrayEquals(new int[]{3, 1}, index.search("pizz"));
+        assertArrayEquals(new int[]{3}, index.search("pizzeria cafe"));
+        assertArrayEquals(new int[]{4, 2}, index.search("Rent"));
+        assertArrayEquals(new int[]{2}, index.search("rent month"));
+        assertEquals(0, index.search("   ").length);
+        assertEquals(0, index.search("sushi").length);
+
+        index.remove(2, 1000L, "Monthly RENT");
+        index.add(2, 4000L, "Rent");
+        assertArrayEquals(new int[]{4, 2}, index.search("ren"));
+        assertEquals(0, index.search("monthly").length);
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownsamplerTest {
+
+    @Test
+    void shouldKeepEndpointsAndPeaksWithinThreshold() {
+        double[] values = new double[10_000];
+        values[4321] = 500.0;
+        values[8000] = 300.0;
+
+        int[] kept = Downsampler.largestTriangleThreeBuckets(values, 0, values.length, 100);
+
+        assertEquals(100, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(values.length - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+        assertTrue(contains(kept, 4321));
+        assertTrue(contains(kept, 8000));
+    }
+
+    @Test
+    void shouldReturnWholeRangeWhenSmall() {
+        int[] kept = Downsampler.largestTriangleThreeBuckets(new double[20], 5, 15, 50);
+        assertEquals(10, kept.length);
+        assertEquals(5, kept[0]);
+        assertEquals(14, kept[9]);
+    }
+
+    private static boolean contains(int[] indices, int index) {
+        for (int i : indices) {
+            if (i == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
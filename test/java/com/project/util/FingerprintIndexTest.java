@@ -0,0 +1,65 @@
+package com.project.util;
+
+import com.project.model.Transcation;
+import org.junit.jupiter.api.Test;
+import java.util.Date;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerprintIndexTest {
+
+    private Transcation transaction(long time, double amount, String description) {
+        Transcation transaction = new Transcation(amount, false, "Food", description);
+        transaction.setDate(new Date(time));
+        return transaction;
+    }
+
+    @Test
+    void shouldMatchSameRowWithDifferentDescriptionSpacingAndCase() {
+        long first = FingerprintIndex.fingerprint(transaction(1_700_000_000_000L, 15.99, "Pizza  delivery"));
+        long second = FingerprintIndex.fingerprint(transaction(1_700_000_000_000L, 15.99, " pizza delivery "));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldDistinguishDifferentAmounts() {
+        long first = FingerprintIndex.fingerprint(transaction(1_700_000_000_000L, 15.99, "Pizza"));
+        long second = FingerprintIndex.fingerprint(transaction(1_700_000_000_000L, 16.99, "Pizza"));
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void shouldGrowAndKeepAllFingerprints() {
+        FingerprintIndex index = new FingerprintIndex();
+
+        for (long i = 1; i <= 100_000; i++) {
+            assertTrue(index.add(i * 0x9E3779B97F4A7C15L));
+        }
+
+        assertEquals(100_000, index.size());
+        assertTrue(index.contains(500 * 0x9E3779B97F4A7C15L));
+        assertFalse(index.add(500 * 0x9E3779B97F4A7C15L));
+        assertFalse(index.contains(123456789L));
+    }
+
+    @Test
+    void shouldKeepFingerprintUntilLastOccurrenceIsRemoved() {
+        FingerprintIndex index = new FingerprintIndex();
+        for (long i = 1; i <= 40; i++) {
+            index.add(i * 0x9E3779B97F4A7C15L);
+        }
+        long shared = 7 * 0x9E3779B97F4A7C15L;
+        index.add(shared);
+
+        assertTrue(index.remove(shared));
+        assertTrue(index.contains(shared));
+        assertTrue(index.remove(shared));
+        assertFalse(index.contains(shared));
+        assertFalse(index.remove(shared));
+        assertEquals(39, index.size());
+        for (long i = 1; i <= 40; i++) {
+            assertEquals(i != 7, index.contains(i * 0x9E3779B97F4A7C15L));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalIndexTest {
+
+    @Test
+    void shouldFindSameIntervalsAsLinearScan() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(1000);
+            intervals.add(new long[]{start, start + random.nextInt(60)});
+        }
+
+        IntervalIndex<long[]> index = new IntervalIndex<>(intervals, interval -> interval[0], interval -> interval[1]);
+
+        for (long day = -5; day < 1070; day++) {
+            int expected = 0;
+            for (long[] interval : intervals) {
+                if (interval[0] <= day && day <= interval[1]) {
+                    expected++;
+                }
+            }
+            List<long[]> found = index.stab(day);
+            assertEquals(expected, found.size());
+            for (long[] interval : found) {
+                assertTrue(interval[0] <= day && day <= interval[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.util;
+
+import com.project.model.Budget;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeriodTableTest {
+
+    private long day(int year, int month, int dayOfMonth) {
+        return LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+    @Test
+    void shouldMapDaysToMonthlyPeriodsFromEndOfMonthAnchor() {
+        PeriodTable table = new PeriodTable(Budget.Recurrence.MONTHLY, day(2024, 1, 31), day(2024, 12, 31));
+
+        assertEquals(0, table.periodOf(day(2024, 1, 31)));
+        assertEquals(0, table.periodOf(day(2024, 2, 28)));
+        assertEquals(1, table.periodOf(day(2024, 2, 29)));
+        assertEquals(1, table.periodOf(day(2024, 3, 30)));
+        assertEquals(2, table.periodOf(day(2024, 3, 31)));
+        assertEquals(-1, table.periodOf(day(2024, 1, 30)));
+        assertEquals(-1, table.periodOf(day(2025, 1, 1)));
+        assertEquals(day(2024, 12, 31), table.getPeriodEnd(table.getPeriodCount() - 1));
+    }
+
+    @Test
+    void shouldSplitAYearIntoWeeklyPeriods() {
+        PeriodTable table = new PeriodTable(Budget.Recurrence.WEEKLY, day(2024, 1, 1), day(2024, 12, 31));
+
+        assertEquals(53, table.getPeriodCount());
+        assertEquals(1, table.periodOf(day(2024, 1, 8)));
+        assertEquals(day(2024, 1, 14), table.getPeriodEnd(1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.util;
+
+import org.junit.jupiter.api.Test;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedLineReaderTest {
+
+    @Test
+    void shouldReadAllLinesInOrder() throws Exception {
+        try (PipelinedLineReader reader = new PipelinedLineReader(new StringReader("a\nb\r\nc"), "test")) {
+            assertEquals("a", reader.readLine());
+            assertEquals("b", reader.readLine());
+            assertEquals("c", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    void shouldStopReadingSourceBeforeCloseReturns() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        // Endless input, so the background thread is always busy or blocked on the full queue
+        Reader endless = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                reads.incrementAndGet();
+                Arrays.fill(buffer, offset, offset + length, 'x');
+                buffer[offset + length - 1] = '\n';
+                return length;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        PipelinedLineReader reader = new PipelinedLineReader(endless, "endless");
+        assertNotNull(reader.readLine());
+        reader.close();
+
+        int readsAfterClose = reads.get();
+        Thread.sleep(200);
+        assertEquals(readsAfterClose, reads.get());
+    }
+}